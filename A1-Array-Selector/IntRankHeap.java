@@ -0,0 +1,236 @@
+import java.util.Arrays;
+
+/**
+ * The smallest (or largest) distinct ints offered so far, up to a fixed
+ * number of them, kept for kmin and kmax over data that is streamed
+ * rather than held in one array.
+ * <p>
+ * The values are held in a binary heap whose root is the worst value
+ * kept: the largest when keeping the smallest values, and the smallest
+ * when keeping the largest. A value that does not beat the root is
+ * rejected with one comparison once the heap is full, and any other
+ * value costs O(log capacity). Duplicates are detected with an
+ * open-addressing hash set over the kept values. The values in rank
+ * order are sorted on demand and cached until the next change.
+ * <p>
+ * The arrays start small and double as values are kept, so a large
+ * capacity costs memory only when that many distinct values arrive.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+final class IntRankHeap {
+
+    private static final int INITIAL_SIZE = 16;
+
+    /** The most values kept. */
+    private final int capacity;
+
+    /** True to keep the largest values rather than the smallest. */
+    private final boolean largest;
+
+    /** The kept values, heap ordered with the worst at heap[0]. */
+    private int[] heap;
+    private int size;
+
+    /** Open-addressing hash set of the kept values. */
+    private int[] table;
+    private boolean[] used;
+    private int shift;
+
+    /** The kept values in rank order, or null if they have changed. */
+    private int[] ranked;
+
+
+    /**
+     * Creates an empty heap that keeps up to capacity of the largest
+     * distinct values if largest is true, or of the smallest otherwise.
+     */
+    IntRankHeap(int capacity, boolean largest) {
+        this.capacity = capacity;
+        this.largest = largest;
+        heap = new int[Math.min(capacity, INITIAL_SIZE)];
+        allocateTable(heap.length);
+    }
+
+
+    /**
+     * Returns the number of distinct values kept.
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the worst value kept, which is the value of rank size().
+     * The heap must not be empty.
+     */
+    int root() {
+        return heap[0];
+    }
+
+
+    /**
+     * Offers x, keeping it if it is not already kept and either the heap
+     * has room or x beats the root, which is then dropped.
+     */
+    void offer(int x) {
+        if (size == capacity && !beats(x, heap[0])) {
+            return;
+        }
+        if (contains(x)) {
+            return;
+        }
+        ranked = null;
+        if (size == capacity) {
+            remove(heap[0]);
+            heap[0] = x;
+            siftDown(0);
+        }
+        else {
+            if (size == heap.length) {
+                grow();
+            }
+            heap[size] = x;
+            siftUp(size++);
+        }
+        add(x);
+    }
+
+
+    /**
+     * Offers every value kept by other.
+     */
+    void offerAll(IntRankHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.heap[i]);
+        }
+    }
+
+
+    /**
+     * Returns the kept value of the given rank, counting from one: the
+     * rank-th smallest, or rank-th largest when keeping the largest.
+     * The rank must be between one and size().
+     */
+    int get(int rank) {
+        if (ranked == null) {
+            int[] r = Arrays.copyOf(heap, size);
+            Arrays.sort(r);
+            if (largest) {
+                for (int i = 0, j = r.length - 1; i < j; i++, j--) {
+                    int t = r[i];
+                    r[i] = r[j];
+                    r[j] = t;
+                }
+            }
+            ranked = r;
+        }
+        return ranked[rank - 1];
+    }
+
+
+    /** Returns true if x ranks before y. */
+    private boolean beats(int x, int y) {
+        return largest ? x > y : x < y;
+    }
+
+    private void siftUp(int i) {
+        int x = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!beats(heap[parent], x)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = x;
+    }
+
+    private void siftDown(int i) {
+        int x = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && beats(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!beats(x, heap[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = x;
+    }
+
+    private void grow() {
+        heap = Arrays.copyOf(heap, (int) Math.min(capacity, 2L * heap.length));
+        int[] oldTable = table;
+        boolean[] oldUsed = used;
+        allocateTable(heap.length);
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldUsed[i]) {
+                add(oldTable[i]);
+            }
+        }
+    }
+
+    /** Sizes the hash set to at most half full when n values are kept. */
+    private void allocateTable(int n) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, 2 * n - 1));
+        table = new int[1 << bits];
+        used = new boolean[1 << bits];
+        shift = 32 - bits;
+    }
+
+    private int slot(int x) {
+        return (x * 0x9E3779B9) >>> shift;
+    }
+
+    private boolean contains(int x) {
+        int mask = table.length - 1;
+        for (int i = slot(x); used[i]; i = (i + 1) & mask) {
+            if (table[i] == x) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(int x) {
+        int mask = table.length - 1;
+        int i = slot(x);
+        while (used[i]) {
+            i = (i + 1) & mask;
+        }
+        table[i] = x;
+        used[i] = true;
+    }
+
+    /** Removes x, which must be present, shifting later probes back into its slot. */
+    private void remove(int x) {
+        int mask = table.length - 1;
+        int i = slot(x);
+        while (!used[i] || table[i] != x) {
+            i = (i + 1) & mask;
+        }
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (!used[j]) {
+                break;
+            }
+            int home = slot(table[j]);
+            // Move table[j] back unless its home lies cyclically in (i..j].
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!stays) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        used[i] = false;
+    }
+}
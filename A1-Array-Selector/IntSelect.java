@@ -0,0 +1,465 @@
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+/**
+ * Selection engine behind the order statistic methods in Selector.
+ * <p>
+ * The kth minimum and kth maximum are defined over the distinct values
+ * of an array, so an array is first folded into its distinct values and
+ * then the requested rank is looked up. One pass finds the range of
+ * values in the array and whether it is already sorted. A sorted array,
+ * ascending or descending, is folded by skipping repeated neighbours,
+ * so every rank is a direct lookup whatever the range. When the range is
+ * narrow compared to the length
+ * of the array, the distinct values are marked in a bitmap over the
+ * range and read back in ascending order, so every rank is a direct
+ * lookup and the whole query is O(n + range / 64). Otherwise the
+ * distinct values are gathered with an open-addressing hash table and
+ * the rank is found with introselect: quickselect using a
+ * median-of-three pivot, falling back to a median-of-medians pivot once
+ * the partitioning has gone on for too long. That path runs in expected
+ * O(n) time.
+ * <p>
+ * The buffers used by both paths are kept per thread and reused from
+ * call to call, so repeated queries do not allocate once the buffers
+ * have grown to the size of the largest array seen by that thread.
+ * Buffers of up to RETAINED_LIMIT elements are held strongly. Larger
+ * ones are held through a SoftReference, so repeated queries over
+ * arrays of millions of values still reuse them, but the collector can
+ * reclaim them under memory pressure instead of every thread pinning
+ * its largest buffers for life.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+final class IntSelect {
+
+    /** Ranges this small are finished with an insertion sort. */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /** The per-thread value buffer. */
+    private static final ThreadLocal<Retained> VALUES =
+        ThreadLocal.withInitial(Retained::new);
+
+    /** The per-thread hash table used to fold duplicates. */
+    private static final ThreadLocal<Retained> TABLE =
+        ThreadLocal.withInitial(Retained::new);
+
+    /** The per-thread presence bitmap used for narrow value ranges. */
+    private static final ThreadLocal<Retained> BITMAP =
+        ThreadLocal.withInitial(Retained::new);
+
+    /** The largest buffer, in elements, held strongly per thread between calls. */
+    static final int RETAINED_LIMIT = 1 << 20;
+
+    /**
+     * A value range counts as narrow if it spans no more than this many
+     * values per array element, or no more than DENSE_RANGE values. At
+     * DENSITY the bitmap takes 32 bits per element, the same memory as
+     * the value buffer. On unsorted input of 100K to 3M ints the bitmap
+     * was two to three times faster than hashing and introselect at 32
+     * values per element, and the two broke even between 128 and 256,
+     * so the bound leaves a wide margin on the bitmap's side.
+     */
+    private static final int DENSITY = 32;
+    private static final int DENSE_RANGE = 1 << 16;
+
+    /**
+     * Can't instantiate this class.
+     */
+    private IntSelect() {
+    }
+
+
+    /**
+     * Returns the kth minimum (or, if fromMax, the kth maximum) distinct
+     * value of a. This method throws IllegalArgumentException if a has
+     * fewer than k distinct values. The array a must not be empty and k
+     * must be positive. The array a is not changed by this method.
+     */
+    static int kth(int[] a, int k, boolean fromMax) {
+        int[] values = scratch(a.length);
+        int gathered = gather(a, values);
+        int distinct = gathered < 0 ? ~gathered : gathered;
+        if (k > distinct) {
+            throw new IllegalArgumentException(k + (fromMax ? "th max" : "th min") + " does not exist.");
+        }
+        int rank = fromMax ? distinct - k : k - 1;
+        return gathered < 0 ? values[rank] : select(values, distinct, rank);
+    }
+
+
+    /**
+     * Returns the ks[i]th minimum (or, if fromMax, maximum) distinct
+     * value of a for every i, sharing one gathering pass and, where
+     * needed, one multi-rank selection among all the ranks. This method
+     * throws IllegalArgumentException if a has fewer distinct values
+     * than one of the ks. The array a must not be empty, every k must
+     * be positive, and ks must not be empty. The array a is not changed
+     * by this method.
+     */
+    static int[] kths(int[] a, int[] ks, boolean fromMax) {
+        int[] values = scratch(a.length);
+        int gathered = gather(a, values);
+        int distinct = gathered < 0 ? ~gathered : gathered;
+
+        int[] ranks = new int[ks.length];
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] > distinct) {
+                throw new IllegalArgumentException(ks[i] + (fromMax ? "th max" : "th min") + " does not exist.");
+            }
+            ranks[i] = fromMax ? distinct - ks[i] : ks[i] - 1;
+        }
+
+        if (gathered >= 0) {
+            int[] sorted = ranks.clone();
+            Arrays.sort(sorted);
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[count++] = sorted[i];
+                }
+            }
+            selectAll(values, distinct, sorted, count);
+        }
+
+        int[] result = new int[ks.length];
+        for (int i = 0; i < ks.length; i++) {
+            result[i] = values[ranks[i]];
+        }
+        return result;
+    }
+
+
+    /**
+     * Copies the distinct values of a into the front of dest. If the
+     * values were written in ascending order, returns the bitwise
+     * complement of their number (a negative value); otherwise returns
+     * their number.
+     */
+    private static int gather(int[] a, int[] dest) {
+        int min = a[0];
+        int max = a[0];
+        int prev = a[0];
+        int falls = 0;
+        int rises = 0;
+        for (int x : a) {
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+            falls |= x < prev ? 1 : 0;
+            rises |= x > prev ? 1 : 0;
+            prev = x;
+        }
+        if (falls == 0 || rises == 0) {
+            return ~distinctSorted(a, rises == 0, dest);
+        }
+        long width = (long) max - min + 1;
+        if (width <= Math.max((long) a.length * DENSITY, DENSE_RANGE)) {
+            return ~distinctDense(a, min, (int) ((width + 63) >>> 6), dest);
+        }
+        return distinct(a, dest);
+    }
+
+
+    /**
+     * Copies the distinct values of a, which is sorted in ascending (or,
+     * if descending, descending) order, into the front of dest in
+     * ascending order. Returns the number of distinct values.
+     */
+    private static int distinctSorted(int[] a, boolean descending, int[] dest) {
+        int step = descending ? -1 : 1;
+        int i = descending ? a.length - 1 : 0;
+        int last = a[i];
+        dest[0] = last;
+        int d = 1;
+        // Store every value and only keep it by advancing d, so repeats cost no branch.
+        for (int n = 1; n < a.length; n++) {
+            i += step;
+            int x = a[i];
+            dest[d] = x;
+            d += x != last ? 1 : 0;
+            last = x;
+        }
+        return d;
+    }
+
+
+    /**
+     * Copies the distinct values of a into the front of dest in
+     * ascending order, using a bitmap of the given number of words in
+     * which bit i marks the value min + i. Returns the number of
+     * distinct values.
+     */
+    private static int distinctDense(int[] a, int min, int words, int[] dest) {
+        long[] bits = (long[]) BITMAP.get().buffer();
+        if (bits == null || bits.length < words) {
+            bits = new long[words];
+            BITMAP.get().keep(bits, words);
+        }
+        else {
+            Arrays.fill(bits, 0, words, 0L);
+        }
+
+        // x - min is read as unsigned, so ranges wider than 2^31 still index correctly.
+        for (int x : a) {
+            int i = x - min;
+            bits[i >>> 6] |= 1L << i;
+        }
+
+        int d = 0;
+        for (int w = 0; w < words; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                dest[d++] = min + (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return d;
+    }
+
+
+    /**
+     * Returns this thread's scratch buffer, grown if necessary so that
+     * it can hold at least n values. The contents of the buffer are
+     * unspecified.
+     */
+    static int[] scratch(int n) {
+        int[] buf = (int[]) VALUES.get().buffer();
+        if (buf == null || buf.length < n) {
+            buf = new int[n];
+            VALUES.get().keep(buf, n);
+        }
+        return buf;
+    }
+
+
+    /**
+     * Copies the distinct values of a into the front of dest, in no
+     * particular order, and returns the number of distinct values.
+     * The array dest must be at least as long as a. The array a is
+     * not changed by this method.
+     */
+    private static int distinct(int[] a, int[] dest) {
+        int capacity = Integer.highestOneBit(Math.max(4, a.length + (a.length >> 1)) - 1) << 1;
+        int[] table = (int[]) TABLE.get().buffer();
+        if (table == null || table.length < capacity) {
+            table = new int[capacity];
+            TABLE.get().keep(table, capacity);
+        }
+        else {
+            Arrays.fill(table, 0, capacity, 0);
+        }
+
+        // 0 marks an empty slot, so zero itself is tracked separately.
+        int mask = capacity - 1;
+        int shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        int d = 0;
+        boolean hasZero = false;
+        for (int x : a) {
+            if (x == 0) {
+                if (!hasZero) {
+                    hasZero = true;
+                    dest[d++] = 0;
+                }
+                continue;
+            }
+            int slot = (x * 0x9E3779B9) >>> shift;
+            while (table[slot] != 0 && table[slot] != x) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == 0) {
+                table[slot] = x;
+                dest[d++] = x;
+            }
+        }
+        return d;
+    }
+
+
+    /**
+     * Rearranges v[0..n) so that v[rank] holds the value that would be
+     * there if v[0..n) were sorted, and returns that value. The values
+     * in v[0..n) must be distinct.
+     */
+    private static int select(int[] v, int n, int rank) {
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(n));
+        return select(v, 0, n - 1, rank, depth);
+    }
+
+
+    /**
+     * Rearranges v[0..n) so that, for every rank in ranks[0..count),
+     * v[rank] holds the value that would be there if v[0..n) were
+     * sorted. The ranks must be distinct and in ascending order, and
+     * the values in v[0..n) must be distinct. A single partitioning
+     * pass is shared by all ranks, which then split between the two
+     * sides of the pivot.
+     */
+    private static void selectAll(int[] v, int n, int[] ranks, int count) {
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(n));
+        selectAll(v, 0, n - 1, ranks, 0, count - 1, depth);
+    }
+
+
+    /**
+     * Multi-rank introselect over v[lo..hi] for ranks[first..last].
+     */
+    private static void selectAll(int[] v, int lo, int hi, int[] ranks,
+                                  int first, int last, int depth) {
+        while (first <= last) {
+            if (first == last) {
+                select(v, lo, hi, ranks[first], depth);
+                return;
+            }
+            if (hi - lo < INSERTION_THRESHOLD) {
+                insertionSort(v, lo, hi);
+                return;
+            }
+            int pivot;
+            if (depth > 0) {
+                depth--;
+                pivot = medianOfThree(v[lo], v[(lo + hi) >>> 1], v[hi]);
+            }
+            else {
+                pivot = medianOfMedians(v, lo, hi);
+            }
+            int p = partition(v, lo, hi, pivot);
+
+            // ranks[first..split) lie left of p, ranks[split..last] at or right of it.
+            int split = first;
+            while (split <= last && ranks[split] < p) {
+                split++;
+            }
+            selectAll(v, lo, p - 1, ranks, first, split - 1, depth);
+            if (split <= last && ranks[split] == p) {
+                split++;
+            }
+            lo = p + 1;
+            first = split;
+        }
+    }
+
+
+    /**
+     * Introselect over v[lo..hi]. Once depth median-of-three rounds
+     * have been used up, pivots are chosen by median of medians.
+     */
+    private static int select(int[] v, int lo, int hi, int rank, int depth) {
+        while (hi - lo >= INSERTION_THRESHOLD) {
+            int pivot;
+            if (depth > 0) {
+                depth--;
+                pivot = medianOfThree(v[lo], v[(lo + hi) >>> 1], v[hi]);
+            }
+            else {
+                pivot = medianOfMedians(v, lo, hi);
+            }
+            int p = partition(v, lo, hi, pivot);
+            if (rank == p) {
+                return v[p];
+            }
+            if (rank < p) {
+                hi = p - 1;
+            }
+            else {
+                lo = p + 1;
+            }
+        }
+        insertionSort(v, lo, hi);
+        return v[rank];
+    }
+
+
+    /**
+     * Partitions v[lo..hi] around the given pivot value, which must be
+     * present in that range, and returns the pivot's final index.
+     */
+    private static int partition(int[] v, int lo, int hi, int pivot) {
+        int p = lo;
+        while (v[p] != pivot) {
+            p++;
+        }
+        swap(v, p, hi);
+        int store = lo;
+        for (int i = lo; i < hi; i++) {
+            if (v[i] < pivot) {
+                swap(v, i, store++);
+            }
+        }
+        swap(v, store, hi);
+        return store;
+    }
+
+
+    /**
+     * Returns the median of the medians of groups of five in v[lo..hi].
+     * The medians are gathered at the front of the range and the
+     * median among them is found recursively.
+     */
+    private static int medianOfMedians(int[] v, int lo, int hi) {
+        int groups = 0;
+        for (int i = lo; i <= hi; i += 5) {
+            int end = Math.min(i + 4, hi);
+            insertionSort(v, i, end);
+            swap(v, lo + groups++, (i + end) >>> 1);
+        }
+        int last = lo + groups - 1;
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(groups));
+        return select(v, lo, last, lo + (groups - 1) / 2, depth);
+    }
+
+
+    private static int medianOfThree(int a, int b, int c) {
+        if (a < b) {
+            return b < c ? b : (a < c ? c : a);
+        }
+        return a < c ? a : (b < c ? c : b);
+    }
+
+
+    private static void insertionSort(int[] v, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int x = v[i];
+            int j = i - 1;
+            while (j >= lo && v[j] > x) {
+                v[j + 1] = v[j];
+                j--;
+            }
+            v[j + 1] = x;
+        }
+    }
+
+
+    private static void swap(int[] v, int i, int j) {
+        int t = v[i];
+        v[i] = v[j];
+        v[j] = t;
+    }
+
+
+    /**
+     * One thread's scratch buffer: held strongly if it has at most
+     * RETAINED_LIMIT elements, and softly otherwise.
+     */
+    private static final class Retained {
+        private Object strong;
+        private SoftReference<Object> soft;
+
+        /** Returns the buffer, or null if there is none or it was reclaimed. */
+        Object buffer() {
+            return strong != null ? strong : (soft != null ? soft.get() : null);
+        }
+
+        /** Keeps buf, which has the given number of elements, in place of the current buffer. */
+        void keep(Object buf, int length) {
+            if (length <= RETAINED_LIMIT) {
+                strong = buf;
+                soft = null;
+            }
+            else {
+                strong = null;
+                soft = new SoftReference<Object>(buf);
+            }
+        }
+    }
+}
@@ -0,0 +1,340 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Accumulates a stream of ints in bounded memory and answers Selector
+ * queries over everything seen so far, for data that is too large to
+ * hold in one array.
+ * <p>
+ * The minimum, maximum and count are kept exactly. The kth minimum and
+ * kth maximum are kept exactly for every k up to a bound fixed at
+ * construction, using a bounded heap of the smallest distinct values
+ * seen and another of the largest, so each value costs O(log k) at
+ * most. Floor and ceiling are kept exactly for a set of keys fixed at
+ * construction: the keys split the int line into buckets, each value
+ * updates the one bucket it falls in, and a query combines the buckets
+ * on its side of the key. Since the values themselves are not kept,
+ * floor and ceiling only answer for those keys; any other key is
+ * rejected, and SortedIntIndex answers for arbitrary keys.
+ * <p>
+ * Accumulators are not thread safe. Give each thread its own and
+ * combine them with merge when the threads are done.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class IntSelectorAccumulator {
+
+    /** The largest rank that kmin and kmax can answer. */
+    private final int maxRank;
+
+    /** The tracked floor and ceiling keys, sorted and distinct. */
+    private final int[] keys;
+
+    /** floorBucket[i] is the largest value in (keys[i - 1]..keys[i]]. */
+    private final int[] floorBucket;
+    private final boolean[] hasFloorBucket;
+
+    /** ceilingBucket[i] is the smallest value in [keys[i]..keys[i + 1]). */
+    private final int[] ceilingBucket;
+    private final boolean[] hasCeilingBucket;
+
+    /** The smallest distinct values seen. */
+    private final IntRankHeap smallest;
+
+    /** The largest distinct values seen. */
+    private final IntRankHeap largest;
+
+    private long count;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+
+    /**
+     * Creates an empty accumulator that can answer kmin and kmax for k
+     * up to maxRank, and floor and ceiling for each of the given keys.
+     * This constructor throws IllegalArgumentException if maxRank is
+     * less than one or keys is null.
+     */
+    public IntSelectorAccumulator(int maxRank, int... keys) {
+        if (maxRank < 1) {
+            throw new IllegalArgumentException("Rank bound must be positive.");
+        }
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys must not be null.");
+        }
+        this.maxRank = maxRank;
+        this.keys = Arrays.stream(keys).sorted().distinct().toArray();
+        floorBucket = new int[this.keys.length];
+        hasFloorBucket = new boolean[this.keys.length];
+        ceilingBucket = new int[this.keys.length];
+        hasCeilingBucket = new boolean[this.keys.length];
+        smallest = new IntRankHeap(maxRank, false);
+        largest = new IntRankHeap(maxRank, true);
+    }
+
+
+    /**
+     * Adds a single value.
+     */
+    public void accept(int x) {
+        count++;
+        min = Math.min(min, x);
+        max = Math.max(max, x);
+
+        smallest.offer(x);
+        largest.offer(x);
+
+        if (keys.length > 0) {
+            int i = firstKeyAtLeast(x);
+            if (i < keys.length && (!hasFloorBucket[i] || x > floorBucket[i])) {
+                floorBucket[i] = x;
+                hasFloorBucket[i] = true;
+            }
+            i = (i < keys.length && keys[i] == x) ? i : i - 1;
+            if (i >= 0 && (!hasCeilingBucket[i] || x < ceilingBucket[i])) {
+                ceilingBucket[i] = x;
+                hasCeilingBucket[i] = true;
+            }
+        }
+    }
+
+
+    /**
+     * Adds every value in the array a. This method throws
+     * IllegalArgumentException if a is null.
+     */
+    public void accept(int[] a) {
+        if (a == null) {
+            throw new IllegalArgumentException("Array must not be null.");
+        }
+        accept(a, 0, a.length);
+    }
+
+
+    /**
+     * Adds the values a[from..to). This method throws
+     * IllegalArgumentException if a is null or the range is not within
+     * the array.
+     */
+    public void accept(int[] a, int from, int to) {
+        if (a == null) {
+            throw new IllegalArgumentException("Array must not be null.");
+        }
+        if (from < 0 || to > a.length || from > to) {
+            throw new IllegalArgumentException("Invalid range.");
+        }
+        for (int i = from; i < to; i++) {
+            accept(a[i]);
+        }
+    }
+
+
+    /**
+     * Adds the remaining values in buf, advancing its position to its
+     * limit. The buffer may be a view of a memory-mapped file. This
+     * method throws IllegalArgumentException if buf is null.
+     */
+    public void accept(IntBuffer buf) {
+        if (buf == null) {
+            throw new IllegalArgumentException("Buffer must not be null.");
+        }
+        if (buf.hasArray()) {
+            int start = buf.arrayOffset() + buf.position();
+            accept(buf.array(), start, start + buf.remaining());
+            buf.position(buf.limit());
+            return;
+        }
+        while (buf.hasRemaining()) {
+            accept(buf.get());
+        }
+    }
+
+
+    /**
+     * Adds every value in the stream, consuming it sequentially. This
+     * method throws IllegalArgumentException if values is null.
+     */
+    public void accept(IntStream values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Stream must not be null.");
+        }
+        values.sequential().forEach(this::accept);
+    }
+
+
+    /**
+     * Adds everything accumulated by other into this accumulator. Both
+     * accumulators must have been created with the same rank bound and
+     * keys, otherwise this method throws IllegalArgumentException.
+     */
+    public void merge(IntSelectorAccumulator other) {
+        if (other == null || other.maxRank != maxRank || !Arrays.equals(other.keys, keys)) {
+            throw new IllegalArgumentException("Accumulators are not compatible.");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        smallest.offerAll(other.smallest);
+        largest.offerAll(other.largest);
+        for (int i = 0; i < keys.length; i++) {
+            if (other.hasFloorBucket[i] && (!hasFloorBucket[i] || other.floorBucket[i] > floorBucket[i])) {
+                floorBucket[i] = other.floorBucket[i];
+                hasFloorBucket[i] = true;
+            }
+            if (other.hasCeilingBucket[i] && (!hasCeilingBucket[i] || other.ceilingBucket[i] < ceilingBucket[i])) {
+                ceilingBucket[i] = other.ceilingBucket[i];
+                hasCeilingBucket[i] = true;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of values added so far, including duplicates.
+     */
+    public long count() {
+        return count;
+    }
+
+
+    /**
+     * Returns the minimum value added so far. This method throws
+     * IllegalArgumentException if no values have been added.
+     */
+    public int min() {
+        checkNotEmpty();
+        return min;
+    }
+
+
+    /**
+     * Returns the maximum value added so far. This method throws
+     * IllegalArgumentException if no values have been added.
+     */
+    public int max() {
+        checkNotEmpty();
+        return max;
+    }
+
+
+    /**
+     * Returns the kth minimum value added so far, as Selector.kmin.
+     * This method throws IllegalArgumentException if no values have
+     * been added, if k is larger than the rank bound, or if there is no
+     * kth minimum value.
+     */
+    public int kmin(int k) {
+        checkNotEmpty();
+        if (k > maxRank) {
+            throw new IllegalArgumentException(k + "th min is beyond the rank bound.");
+        }
+        if (k < 1 || k > smallest.size()) {
+            throw new IllegalArgumentException(k + "th min does not exist.");
+        }
+        return smallest.get(k);
+    }
+
+
+    /**
+     * Returns the kth maximum value added so far, as Selector.kmax.
+     * This method throws IllegalArgumentException if no values have
+     * been added, if k is larger than the rank bound, or if there is no
+     * kth maximum value.
+     */
+    public int kmax(int k) {
+        checkNotEmpty();
+        if (k > maxRank) {
+            throw new IllegalArgumentException(k + "th max is beyond the rank bound.");
+        }
+        if (k < 1 || k > largest.size()) {
+            throw new IllegalArgumentException(k + "th max does not exist.");
+        }
+        return largest.get(k);
+    }
+
+
+    /**
+     * Returns the largest value added so far that is less than or equal
+     * to key, as Selector.floor. This method throws
+     * IllegalArgumentException if no values have been added, if key is
+     * not one of the tracked keys, or if there is no qualifying value.
+     */
+    public int floor(int key) {
+        checkNotEmpty();
+        int j = trackedKey(key);
+        boolean found = false;
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i <= j; i++) {
+            if (hasFloorBucket[i]) {
+                best = Math.max(best, floorBucket[i]);
+                found = true;
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("No value");
+        }
+        return best;
+    }
+
+
+    /**
+     * Returns the smallest value added so far that is greater than or
+     * equal to key, as Selector.ceiling. This method throws
+     * IllegalArgumentException if no values have been added, if key is
+     * not one of the tracked keys, or if there is no qualifying value.
+     */
+    public int ceiling(int key) {
+        checkNotEmpty();
+        int j = trackedKey(key);
+        boolean found = false;
+        int best = Integer.MAX_VALUE;
+        for (int i = j; i < keys.length; i++) {
+            if (hasCeilingBucket[i]) {
+                best = Math.min(best, ceilingBucket[i]);
+                found = true;
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("No value");
+        }
+        return best;
+    }
+
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new IllegalArgumentException("No values have been added.");
+        }
+    }
+
+
+    private int trackedKey(int key) {
+        int j = Arrays.binarySearch(keys, key);
+        if (j < 0) {
+            throw new IllegalArgumentException(key + " is not a tracked key.");
+        }
+        return j;
+    }
+
+
+    /** Returns the index of the first key that is >= x. */
+    private int firstKeyAtLeast(int x) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < x) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
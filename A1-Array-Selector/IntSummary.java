@@ -0,0 +1,112 @@
+/**
+ * The result of Selector.summarize: the minimum, maximum, floor and
+ * ceiling of an array for one key, and the number of values in a range,
+ * all gathered in a single pass over the array.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class IntSummary {
+
+    private final int min;
+    private final int max;
+    private final int floor;
+    private final int ceiling;
+    private final boolean hasFloor;
+    private final boolean hasCeiling;
+    private final int rangeCount;
+
+
+    IntSummary(int min, int max, int floor, boolean hasFloor,
+               int ceiling, boolean hasCeiling, int rangeCount) {
+        this.min = min;
+        this.max = max;
+        this.floor = floor;
+        this.hasFloor = hasFloor;
+        this.ceiling = ceiling;
+        this.hasCeiling = hasCeiling;
+        this.rangeCount = rangeCount;
+    }
+
+
+    /**
+     * Returns the minimum value in the array.
+     */
+    public int min() {
+        return min;
+    }
+
+
+    /**
+     * Returns the maximum value in the array.
+     */
+    public int max() {
+        return max;
+    }
+
+
+    /**
+     * Returns true if the array has a value less than or equal to the
+     * key.
+     */
+    public boolean hasFloor() {
+        return hasFloor;
+    }
+
+
+    /**
+     * Returns the largest value in the array that is less than or equal
+     * to the key. This method throws IllegalArgumentException if there
+     * is no such value.
+     */
+    public int floor() {
+        if (!hasFloor) {
+            throw new IllegalArgumentException("No value");
+        }
+        return floor;
+    }
+
+
+    /**
+     * Returns true if the array has a value greater than or equal to
+     * the key.
+     */
+    public boolean hasCeiling() {
+        return hasCeiling;
+    }
+
+
+    /**
+     * Returns the smallest value in the array that is greater than or
+     * equal to the key. This method throws IllegalArgumentException if
+     * there is no such value.
+     */
+    public int ceiling() {
+        if (!hasCeiling) {
+            throw new IllegalArgumentException("No value");
+        }
+        return ceiling;
+    }
+
+
+    /**
+     * Returns the number of values in the array in the range
+     * [low..high], including duplicates. If no range was given this is
+     * the length of the array.
+     */
+    public int rangeCount() {
+        return rangeCount;
+    }
+
+
+    /**
+     * Returns a string representation of this summary.
+     */
+    @Override
+    public String toString() {
+        return "min = " + min + ", max = " + max
+            + ", floor = " + (hasFloor ? String.valueOf(floor) : "none")
+            + ", ceiling = " + (hasCeiling ? String.valueOf(ceiling) : "none")
+            + ", range count = " + rangeCount;
+    }
+}
@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only, memory-mapped file of 32-bit ints that answers the same
+ * queries as Selector without first copying the file into an int[].
+ * <p>
+ * A single mapping is limited to 2 GB, so the file is mapped as a
+ * sequence of segments of at most SEGMENT_INTS ints each and every
+ * query walks the segments in file order. The mappings stay valid after
+ * the file channel is closed and are released when this object becomes
+ * unreachable.
+ * <p>
+ * Each query method has the same contract as the Selector method of the
+ * same name, with the file contents playing the part of the array, and
+ * throws IllegalArgumentException if the file holds no values.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class MappedIntFile {
+
+    /** The largest number of ints mapped as one segment (1 GB). */
+    static final int SEGMENT_INTS = 1 << 28;
+
+    /** The mapped segments, in file order. */
+    private final IntBuffer[] segments;
+
+    /** The number of ints in the file. */
+    private final long length;
+
+
+    private MappedIntFile(IntBuffer[] segments, long length) {
+        this.segments = segments;
+        this.length = length;
+    }
+
+
+    /**
+     * Maps the given file of big-endian ints. This method throws
+     * IllegalArgumentException if the file length is not a multiple of
+     * four bytes, and IOException if the file cannot be mapped.
+     */
+    public static MappedIntFile open(Path file) throws IOException {
+        return open(file, ByteOrder.BIG_ENDIAN);
+    }
+
+
+    /**
+     * Maps the given file of ints stored in the given byte order. This
+     * method throws IllegalArgumentException if file or order is null or
+     * the file length is not a multiple of four bytes, and IOException
+     * if the file cannot be mapped.
+     */
+    public static MappedIntFile open(Path file, ByteOrder order) throws IOException {
+        if (file == null || order == null) {
+            throw new IllegalArgumentException("File and byte order must not be null.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("File length is not a whole number of ints.");
+            }
+            long ints = bytes / Integer.BYTES;
+            int count = (int) ((ints + SEGMENT_INTS - 1) / SEGMENT_INTS);
+            IntBuffer[] segments = new IntBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i * SEGMENT_INTS;
+                long size = Math.min(SEGMENT_INTS, ints - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                          start * Integer.BYTES, size * Integer.BYTES)
+                                     .order(order)
+                                     .asIntBuffer();
+            }
+            return new MappedIntFile(segments, ints);
+        }
+    }
+
+
+    /**
+     * Returns the number of ints in the file.
+     */
+    public long length() {
+        return length;
+    }
+
+
+    /**
+     * Selects the minimum value in the file.
+     */
+    public int min() {
+        checkNotEmpty();
+        int min = Integer.MAX_VALUE;
+        for (IntBuffer s : segments) {
+            for (int i = 0, n = s.limit(); i < n; i++) {
+                min = Math.min(min, s.get(i));
+            }
+        }
+        return min;
+    }
+
+
+    /**
+     * Selects the maximum value in the file.
+     */
+    public int max() {
+        checkNotEmpty();
+        int max = Integer.MIN_VALUE;
+        for (IntBuffer s : segments) {
+            for (int i = 0, n = s.limit(); i < n; i++) {
+                max = Math.max(max, s.get(i));
+            }
+        }
+        return max;
+    }
+
+
+    /**
+     * Selects the kth minimum value in the file, as Selector.kmin. The
+     * smallest k distinct values are kept in a bounded heap, so memory
+     * use grows with k rather than with the file, and the kth minimum is
+     * the heap's root after one pass.
+     */
+    public int kmin(int k) {
+        checkNotEmpty();
+        if (k < 1 || k > length) {
+            throw new IllegalArgumentException(k + "th min does not exist.");
+        }
+        return select(k, false, "th min");
+    }
+
+
+    /**
+     * Selects the kth maximum value in the file, as Selector.kmax. The
+     * largest k distinct values are kept in a bounded heap, so memory
+     * use grows with k rather than with the file, and the kth maximum is
+     * the heap's root after one pass.
+     */
+    public int kmax(int k) {
+        checkNotEmpty();
+        if (k < 1 || k > length) {
+            throw new IllegalArgumentException(k + "th max does not exist.");
+        }
+        return select(k, true, "th max");
+    }
+
+
+    /**
+     * Returns the number of values in the file in the range
+     * [low..high], including duplicate values.
+     */
+    public long rangeCount(int low, int high) {
+        checkNotEmpty();
+        long count = 0;
+        for (IntBuffer s : segments) {
+            for (int i = 0, n = s.limit(); i < n; i++) {
+                int x = s.get(i);
+                count += (x >= low & x <= high) ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Returns an array containing all the values in the file in the
+     * range [low..high], in file order and including duplicates, as
+     * Selector.range. This method throws IllegalArgumentException if
+     * there are too many qualifying values to fit in an array.
+     */
+    public int[] range(int low, int high) {
+        long count = rangeCount(low, high);
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Range is too large for an array.");
+        }
+        int[] result = new int[(int) count];
+        int j = 0;
+        // Every value is stored and only the index depends on the range
+        // test, as in IntKernels.compact. Each block is no longer than the
+        // room left in result, so the stores stay in bounds.
+        for (IntBuffer s : segments) {
+            int i = 0;
+            int n = s.limit();
+            while (i < n && j < result.length) {
+                int stop = i + Math.min(result.length - j, n - i);
+                for (; i < stop; i++) {
+                    int x = s.get(i);
+                    result[j] = x;
+                    j += (x >= low & x <= high) ? 1 : 0;
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the smallest value in the file that is greater than or
+     * equal to the given key, as Selector.ceiling.
+     */
+    public int ceiling(int key) {
+        checkNotEmpty();
+        int min = Integer.MAX_VALUE;
+        boolean found = false;
+        for (IntBuffer s : segments) {
+            for (int i = 0, n = s.limit(); i < n; i++) {
+                int x = s.get(i);
+                min = Math.min(min, x >= key ? x : Integer.MAX_VALUE);
+                found |= x >= key;
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("No value");
+        }
+        return min;
+    }
+
+
+    /**
+     * Returns the largest value in the file that is less than or equal
+     * to the given key, as Selector.floor.
+     */
+    public int floor(int key) {
+        checkNotEmpty();
+        int max = Integer.MIN_VALUE;
+        boolean found = false;
+        for (IntBuffer s : segments) {
+            for (int i = 0, n = s.limit(); i < n; i++) {
+                int x = s.get(i);
+                max = Math.max(max, x <= key ? x : Integer.MIN_VALUE);
+                found |= x <= key;
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("No value");
+        }
+        return max;
+    }
+
+
+    private int select(int k, boolean largest, String rank) {
+        IntRankHeap heap = new IntRankHeap(k, largest);
+        for (IntBuffer s : segments) {
+            for (int i = 0, n = s.limit(); i < n; i++) {
+                heap.offer(s.get(i));
+            }
+        }
+        if (heap.size() < k) {
+            throw new IllegalArgumentException(k + rank + " does not exist.");
+        }
+        return heap.root();
+    }
+
+
+    private void checkNotEmpty() {
+        if (length == 0) {
+            throw new IllegalArgumentException("File must have values.");
+        }
+    }
+}
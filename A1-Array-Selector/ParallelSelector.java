@@ -0,0 +1,256 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join versions of the linear-time selection methods in Selector,
+ * for very large arrays. Instances are obtained from Selector.parallel().
+ * <p>
+ * Each method has the same contract as the Selector method of the same
+ * name. Arrays shorter than the threshold are handed to Selector
+ * directly so that small calls don't pay for forking; longer arrays are
+ * split into chunks small enough to stay in cache, scanned in the
+ * common fork/join pool, and the partial results are combined.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class ParallelSelector {
+
+    /** Default length below which the sequential methods are used. */
+    static final int DEFAULT_THRESHOLD = 1 << 20;
+
+    /** Number of ints scanned by one leaf task (256 KB). */
+    private static final int CHUNK = 1 << 16;
+
+    /** The shared instance with the default threshold. */
+    static final ParallelSelector DEFAULT = new ParallelSelector(DEFAULT_THRESHOLD);
+
+    /** Arrays shorter than this are handled sequentially. */
+    private final int threshold;
+
+
+    private ParallelSelector(int threshold) {
+        this.threshold = threshold;
+    }
+
+
+    /**
+     * Returns a ParallelSelector that handles arrays shorter than
+     * threshold sequentially. This method throws
+     * IllegalArgumentException if threshold is less than one.
+     */
+    public ParallelSelector withThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive.");
+        }
+        return new ParallelSelector(threshold);
+    }
+
+
+    /**
+     * Returns the length below which arrays are handled sequentially.
+     */
+    public int threshold() {
+        return threshold;
+    }
+
+
+    /**
+     * Selects the minimum value from the array a, as Selector.min.
+     */
+    public int min(int[] a) {
+        if (a == null || a.length < threshold) {
+            return Selector.min(a);
+        }
+        return scan(Op.MIN, a, 0, 0);
+    }
+
+
+    /**
+     * Selects the maximum value from the array a, as Selector.max.
+     */
+    public int max(int[] a) {
+        if (a == null || a.length < threshold) {
+            return Selector.max(a);
+        }
+        return scan(Op.MAX, a, 0, 0);
+    }
+
+
+    /**
+     * Returns the smallest value in a that is greater than or equal to
+     * the given key, as Selector.ceiling.
+     */
+    public int ceiling(int[] a, int key) {
+        if (a == null || a.length < threshold) {
+            return Selector.ceiling(a, key);
+        }
+        int min = scan(Op.CEILING, a, key, 0);
+        if (min == Integer.MAX_VALUE
+            && scan(Op.COUNT, a, Integer.MAX_VALUE, Integer.MAX_VALUE) == 0) {
+            throw new IllegalArgumentException("No value");
+        }
+        return min;
+    }
+
+
+    /**
+     * Returns the largest value in a that is less than or equal to the
+     * given key, as Selector.floor.
+     */
+    public int floor(int[] a, int key) {
+        if (a == null || a.length < threshold) {
+            return Selector.floor(a, key);
+        }
+        int max = scan(Op.FLOOR, a, key, 0);
+        if (max == Integer.MIN_VALUE
+            && scan(Op.COUNT, a, Integer.MIN_VALUE, Integer.MIN_VALUE) == 0) {
+            throw new IllegalArgumentException("No value");
+        }
+        return max;
+    }
+
+
+    /**
+     * Returns an array containing all the values in a in the range
+     * [low..high], in the order they appear in a, as Selector.range.
+     * Each chunk is counted in parallel, the counts are turned into
+     * offsets, and each chunk then writes its values straight into
+     * place in the exact-size result.
+     */
+    public int[] range(int[] a, int low, int high) {
+        if (a == null || a.length < threshold) {
+            return Selector.range(a, low, high);
+        }
+        int chunks = (a.length + CHUNK - 1) / CHUNK;
+        int[] offsets = new int[chunks + 1];
+        ForkJoinPool.commonPool().invoke(new RangeTask(a, low, high, offsets, null, 0, chunks));
+
+        // offsets[i + 1] holds the count of chunk i; make them running sums.
+        for (int i = 1; i <= chunks; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] result = new int[offsets[chunks]];
+        ForkJoinPool.commonPool().invoke(new RangeTask(a, low, high, offsets, result, 0, chunks));
+        return result;
+    }
+
+
+    private static int scan(Op op, int[] a, int x, int y) {
+        return ForkJoinPool.commonPool().invoke(new ScanTask(op, a, 0, a.length, x, y));
+    }
+
+
+    /** The reductions performed by ScanTask. */
+    private enum Op { MIN, MAX, CEILING, FLOOR, COUNT }
+
+
+    /**
+     * Reduces a[from..to) with one of the IntKernels, splitting in half
+     * until a range fits in one chunk.
+     */
+    private static final class ScanTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Op op;
+        private final int[] a;
+        private final int from;
+        private final int to;
+        private final int x;
+        private final int y;
+
+        ScanTask(Op op, int[] a, int from, int to, int x, int y) {
+            this.op = op;
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= CHUNK) {
+                switch (op) {
+                    case MIN:     return IntKernels.min(a, from, to);
+                    case MAX:     return IntKernels.max(a, from, to);
+                    case CEILING: return IntKernels.ceiling(a, from, to, x);
+                    case FLOOR:   return IntKernels.floor(a, from, to, x);
+                    default:      return IntKernels.count(a, from, to, x, y);
+                }
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(op, a, from, mid, x, y);
+            left.fork();
+            int right = new ScanTask(op, a, mid, to, x, y).compute();
+            int l = left.join();
+            switch (op) {
+                case MIN:
+                case CEILING:
+                    return Math.min(l, right);
+                case MAX:
+                case FLOOR:
+                    return Math.max(l, right);
+                default:
+                    return l + right;
+            }
+        }
+    }
+
+
+    /**
+     * Processes chunks [first..last) of a range query. Without a result
+     * array, each chunk's count is stored in offsets[chunk + 1]; with
+     * one, each chunk copies its values to result starting at
+     * offsets[chunk].
+     */
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int low;
+        private final int high;
+        private final int[] offsets;
+        private final int[] result;
+        private final int first;
+        private final int last;
+
+        RangeTask(int[] a, int low, int high, int[] offsets, int[] result, int first, int last) {
+            this.a = a;
+            this.low = low;
+            this.high = high;
+            this.offsets = offsets;
+            this.result = result;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > 1) {
+                int mid = (first + last) >>> 1;
+                invokeAll(new RangeTask(a, low, high, offsets, result, first, mid),
+                          new RangeTask(a, low, high, offsets, result, mid, last));
+                return;
+            }
+            int from = first * CHUNK;
+            int to = from + Math.min(CHUNK, a.length - from);
+            if (result == null) {
+                offsets[first + 1] = IntKernels.count(a, from, to, low, high);
+                return;
+            }
+            // The kernel may store one slot past its last value, which here
+            // is the next chunk's first slot, so each block is kept no longer
+            // than the room left before offsets[first + 1].
+            int j = offsets[first];
+            int end = offsets[first + 1];
+            int i = from;
+            while (j < end) {
+                int stop = i + Math.min(end - j, to - i);
+                j = IntKernels.compact(a, i, stop, low, high, result, j);
+                i = stop;
+            }
+        }
+    }
+}
@@ -1,6 +1,3 @@
-import java.util.ArrayList;
-import java.util.Arrays;
-
 /**
  * Defines a library of selection methods
  * on arrays of ints.
@@ -21,6 +18,16 @@ public final class Selector {
     }
 
 
+    /**
+     * Returns a ParallelSelector whose methods split very large arrays
+     * across the common fork/join pool. Arrays shorter than its
+     * threshold are handled by the methods of this class.
+     */
+    public static ParallelSelector parallel() {
+        return ParallelSelector.DEFAULT;
+    }
+
+
     /**
      * Selects the minimum value from the array a. This method
      * throws IllegalArgumentException if a is null or has zero
@@ -30,13 +37,7 @@ public final class Selector {
         if (a == null || a.length == 0) {
             throw new IllegalArgumentException("Array must have elements.");
         }
-        int min = a[0];
-        for (int x : a) {
-            if (x < min) {
-                min = x;
-            }
-        }
-        return min;
+        return IntKernels.min(a, 0, a.length);
     }
 
 
@@ -49,13 +50,52 @@ public final class Selector {
         if (a == null || a.length == 0) {
             throw new IllegalArgumentException("Array must have elements.");
         }
-        int max = a[0];
+        return IntKernels.max(a, 0, a.length);
+    }
+
+
+    /**
+     * Returns the minimum, maximum, floor and ceiling of the given key
+     * for the array a, all found in a single pass over the array. This
+     * is cheaper than calling min, max, floor and ceiling separately,
+     * each of which scans the whole array. This method throws
+     * IllegalArgumentException if a is null or has zero length. The
+     * array a is not changed by this method.
+     */
+    public static IntSummary summarize(int[] a, int key) {
+        return summarize(a, key, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Returns the minimum, maximum, floor and ceiling of the given key
+     * for the array a, and the number of values in the range
+     * [low..high], all found in a single pass over the array. This
+     * method throws IllegalArgumentException if a is null or has zero
+     * length. The array a is not changed by this method.
+     */
+    public static IntSummary summarize(int[] a, int key, int low, int high) {
+        if (a == null || a.length == 0) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int floor = Integer.MIN_VALUE;
+        int ceiling = Integer.MAX_VALUE;
+        boolean hasFloor = false;
+        boolean hasCeiling = false;
+        int count = 0;
         for (int x : a) {
-            if (x > max) {
-                max = x;
-            }
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+            floor = Math.max(floor, x <= key ? x : Integer.MIN_VALUE);
+            ceiling = Math.min(ceiling, x >= key ? x : Integer.MAX_VALUE);
+            hasFloor |= x <= key;
+            hasCeiling |= x >= key;
+            count += (x >= low & x <= high) ? 1 : 0;
         }
-        return max;
+        return new IntSummary(min, max, floor, hasFloor, ceiling, hasCeiling, count);
     }
 
 
@@ -71,28 +111,14 @@ public final class Selector {
         if (a == null || a.length == 0) {
             throw new IllegalArgumentException("Array must have elements.");
         }
-
-        int[] copyRay = Arrays.copyOf(a, a.length);
-        Arrays.sort(copyRay);
-
-        int z = 1;
-        int i = 0;
-
-        if (k == 1) {
-            return copyRay[0];
-        }
-
-        while (i < copyRay.length - 1 && z < k) {
-            if (copyRay[i] != copyRay[++i]) {
-                z++;
-            }
-        }
-
-        if (z != k) {
+        if (k < 1 || k > a.length) {
             throw new IllegalArgumentException(k + "th min does not exist.");
         }
+        if (k == 1) {
+            return min(a);
+        }
 
-        return copyRay[i];
+        return IntSelect.kth(a, k, false);
     }
 
 
@@ -109,28 +135,63 @@ public final class Selector {
         if (a == null || a.length == 0 || k <= 0 || k > a.length) {
             throw new IllegalArgumentException("Invalid input.");
         }
+        if (k == 1) {
+            return max(a);
+        }
 
-        int[] copyRay = Arrays.copyOf(a, a.length);
-        Arrays.sort(copyRay);
+        return IntSelect.kth(a, k, true);
+    }
 
-        int z = 1;
-        int i = copyRay.length - 1;
 
-        if (k == 1) {
-            return copyRay[i];
-        }
 
-        while (i > 0) {
-            if (copyRay[i] != copyRay[i - 1]) {
-                z++;
-                if (z == k) {
-                    return copyRay[i - 1];
-                }
+    /**
+     * Selects several kth minimum values from the array a at once.
+     * Element i of the returned array is the ks[i]th minimum value, as
+     * defined by kmin. The distinct values of a are gathered once and
+     * all the requested ranks are found by a shared partitioning pass,
+     * which is much cheaper than calling kmin once per rank. This
+     * method throws IllegalArgumentException if a is null, has zero
+     * length, if ks is null, or if any of the kth minimum values does
+     * not exist. The array a is not changed by this method.
+     */
+    public static int[] kmins(int[] a, int... ks) {
+        return kselect(a, ks, false);
+    }
+
+
+    /**
+     * Selects several kth maximum values from the array a at once.
+     * Element i of the returned array is the ks[i]th maximum value, as
+     * defined by kmax. This method throws IllegalArgumentException if a
+     * is null, has zero length, if ks is null, or if any of the kth
+     * maximum values does not exist. The array a is not changed by
+     * this method.
+     */
+    public static int[] kmaxs(int[] a, int... ks) {
+        return kselect(a, ks, true);
+    }
+
+
+    /**
+     * Shared implementation of kmins and kmaxs.
+     */
+    private static int[] kselect(int[] a, int[] ks, boolean fromMax) {
+        if (a == null || a.length == 0) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (ks == null) {
+            throw new IllegalArgumentException("Ranks must not be null.");
+        }
+        String which = fromMax ? "th max" : "th min";
+        for (int k : ks) {
+            if (k < 1 || k > a.length) {
+                throw new IllegalArgumentException(k + which + " does not exist.");
             }
-            i--;
         }
-
-        throw new IllegalArgumentException(k + "th max does not exist.");
+        if (ks.length == 0) {
+            return new int[0];
+        }
+        return IntSelect.kths(a, ks, fromMax);
     }
 
 
@@ -152,19 +213,49 @@ public final class Selector {
             throw new IllegalArgumentException("Array must have elements.");
         }
 
-        ArrayList<Integer> result = new ArrayList<Integer>();
-        for (int i = 0; i < a.length; i++) {
-            if ((a[i] >= low) && (a[i] <= high)) {
-                result.add(a[i]);
-            }
-        }
+        int[] result = new int[IntKernels.count(a, 0, a.length, low, high)];
+        range(a, low, high, result);
+        return result;
+    }
 
-        int[] realResult = new int[result.size()];
 
-        for (int i = 0; i < result.size(); i++) {
-            realResult[i] = result.get(i);
+    /**
+     * Copies all the values in a in the range [low..high] into the
+     * front of dest, in the order they appear in a and including
+     * duplicate values, and returns the number of values copied. No
+     * memory is allocated by this method, and the copy has no branch
+     * per value, so dest[count] may be overwritten as well when dest is
+     * longer than count. This method throws an
+     * IllegalArgumentException if a is null or has zero length, if
+     * dest is null, or if dest is too short to hold every qualifying
+     * value; in the last case the contents of dest are unspecified.
+     * The array a is not changed by this method.
+     */
+    public static int range(int[] a, int low, int high, int[] dest) {
+        if (a == null || a.length == 0) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (dest == null) {
+            throw new IllegalArgumentException("Destination must not be null.");
+        }
+
+        // Each block is no longer than the room left in dest, so the
+        // kernel's unconditional stores stay in bounds.
+        int count = 0;
+        int i = 0;
+        while (i < a.length) {
+            int room = dest.length - count;
+            if (room == 0) {
+                if (IntKernels.count(a, i, a.length, low, high) > 0) {
+                    throw new IllegalArgumentException("Destination is too short.");
+                }
+                break;
+            }
+            int end = i + Math.min(room, a.length - i);
+            count = IntKernels.compact(a, i, end, low, high, dest, count);
+            i = end;
         }
-        return realResult;
+        return count;
     }
 
 
@@ -180,14 +271,8 @@ public final class Selector {
             throw new IllegalArgumentException("Array must have elements.");
         }
 
-        int min = Integer.MAX_VALUE;
-
-        for (int x : a) {
-            if ((x >= key) && (x < min)) {
-                min = x;
-            }
-        }
-        if (min == Integer.MAX_VALUE) {
+        int min = IntKernels.ceiling(a, 0, a.length, key);
+        if (min == Integer.MAX_VALUE && !IntKernels.hasCeiling(a, 0, a.length)) {
             throw new IllegalArgumentException("No value");
         }
         return min;
@@ -206,14 +291,8 @@ public final class Selector {
             throw new IllegalArgumentException("Array must have elements.");
         }
 
-        int max = Integer.MIN_VALUE;
-
-        for (int x : a) {
-            if ((x <= key) && (x > max)) {
-                max = x;
-            }
-        }
-        if (max == Integer.MIN_VALUE) {
+        int max = IntKernels.floor(a, 0, a.length, key);
+        if (max == Integer.MIN_VALUE && !IntKernels.hasFloor(a, 0, a.length)) {
             throw new IllegalArgumentException("No value");
         }
         return max;
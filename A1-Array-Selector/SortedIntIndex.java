@@ -0,0 +1,238 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A sorted, deduplicated snapshot of an array of ints that answers the
+ * same queries as Selector in O(log n) time or better. The index is
+ * built once in O(n log n) time and is worthwhile when many queries are
+ * issued against the same array.
+ * <p>
+ * The index keeps each distinct value once, together with the number of
+ * times it occurs, so range results still include duplicate values.
+ * Unlike Selector.range, the values returned by range are in ascending
+ * order rather than in the order they appear in the original array.
+ * <p>
+ * The index is immutable. Later changes to the array it was built from
+ * are not reflected in the index.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class SortedIntIndex {
+
+    /** The distinct values, in ascending order. */
+    private final int[] values;
+
+    /**
+     * starts[i] is the number of values in the original array that are
+     * less than values[i]; starts[values.length] is the array length.
+     */
+    private final int[] starts;
+
+
+    /**
+     * Builds an index over the values in a. This constructor throws
+     * IllegalArgumentException if a is null or has zero length. The
+     * array a is not changed by this constructor.
+     */
+    public SortedIntIndex(int[] a) {
+        if (a == null || a.length == 0) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+
+        int[] sorted = Arrays.copyOf(a, a.length);
+        Arrays.sort(sorted);
+
+        int[] runStarts = new int[sorted.length + 1];
+        int d = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[d] = sorted[i];
+                runStarts[d] = i;
+                d++;
+            }
+        }
+        runStarts[d] = sorted.length;
+
+        values = Arrays.copyOf(sorted, d);
+        starts = Arrays.copyOf(runStarts, d + 1);
+    }
+
+
+    /**
+     * Returns the number of values in the indexed array, including
+     * duplicate values.
+     */
+    public int size() {
+        return starts[values.length];
+    }
+
+
+    /**
+     * Returns the number of distinct values in the indexed array.
+     */
+    public int distinctCount() {
+        return values.length;
+    }
+
+
+    /**
+     * Returns the number of times value occurs in the indexed array.
+     */
+    public int count(int value) {
+        int i = Arrays.binarySearch(values, value);
+        return i < 0 ? 0 : starts[i + 1] - starts[i];
+    }
+
+
+    /**
+     * Returns the minimum value.
+     */
+    public int min() {
+        return values[0];
+    }
+
+
+    /**
+     * Returns the maximum value.
+     */
+    public int max() {
+        return values[values.length - 1];
+    }
+
+
+    /**
+     * Returns the kth minimum value, with the same meaning as
+     * Selector.kmin. This method throws IllegalArgumentException if
+     * there is no kth minimum value.
+     */
+    public int kmin(int k) {
+        if (k < 1 || k > values.length) {
+            throw new IllegalArgumentException(k + "th min does not exist.");
+        }
+        return values[k - 1];
+    }
+
+
+    /**
+     * Returns the kth maximum value, with the same meaning as
+     * Selector.kmax. This method throws IllegalArgumentException if
+     * there is no kth maximum value.
+     */
+    public int kmax(int k) {
+        if (k < 1 || k > values.length) {
+            throw new IllegalArgumentException(k + "th max does not exist.");
+        }
+        return values[values.length - k];
+    }
+
+
+    /**
+     * Returns the smallest value that is greater than or equal to the
+     * given key. This method throws IllegalArgumentException if there
+     * is no qualifying value.
+     */
+    public int ceiling(int key) {
+        int i = lowerBound(key);
+        if (i == values.length) {
+            throw new IllegalArgumentException("No value");
+        }
+        return values[i];
+    }
+
+
+    /**
+     * Returns the largest value that is less than or equal to the given
+     * key. This method throws IllegalArgumentException if there is no
+     * qualifying value.
+     */
+    public int floor(int key) {
+        int i = upperBound(key) - 1;
+        if (i < 0) {
+            throw new IllegalArgumentException("No value");
+        }
+        return values[i];
+    }
+
+
+    /**
+     * Returns the number of values in the range [low..high], including
+     * duplicate values.
+     */
+    public int rangeCount(int low, int high) {
+        if (low > high) {
+            return 0;
+        }
+        return starts[upperBound(high)] - starts[lowerBound(low)];
+    }
+
+
+    /**
+     * Returns an array containing all the values in the range
+     * [low..high], including duplicate values, in ascending order. The
+     * length of the returned array is the number of values in the
+     * range. If there are no qualifying values, this method returns a
+     * zero-length array.
+     */
+    public int[] range(int low, int high) {
+        if (low > high) {
+            return new int[0];
+        }
+        int from = lowerBound(low);
+        int to = upperBound(high);
+        int[] result = new int[starts[to] - starts[from]];
+        for (int i = from; i < to; i++) {
+            Arrays.fill(result, starts[i] - starts[from], starts[i + 1] - starts[from], values[i]);
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns a read-only view of the distinct values in the range
+     * [low..high], in ascending order. The view shares storage with the
+     * index, so no values are copied.
+     */
+    public IntBuffer distinctRange(int low, int high) {
+        if (low > high) {
+            return IntBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        int from = lowerBound(low);
+        int to = upperBound(high);
+        return IntBuffer.wrap(values, from, to - from).slice().asReadOnlyBuffer();
+    }
+
+
+    /** Returns the index of the first value that is >= key. */
+    private int lowerBound(int key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+
+    /** Returns the index of the first value that is > key. */
+    private int upperBound(int key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,117 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The IntKernels scans written with the incubating Vector API.
+ * <p>
+ * Each kernel folds whole vectors into a vector accumulator, using a
+ * compare mask to leave out the lanes that do not qualify, reduces the
+ * accumulator across its lanes once, and finishes the last partial
+ * vector with the scalar loop.
+ * <p>
+ * This class needs the jdk.incubator.vector module, so it lives apart
+ * from the other sources and is only compiled and loaded on request:
+ * <pre>
+ *   javac --add-modules jdk.incubator.vector *.java vector/*.java
+ *   java --add-modules jdk.incubator.vector ...
+ * </pre>
+ * IntKernels loads it by name and falls back to its own loops if it is
+ * missing or the module is not resolved.
+ *
+ * @author   John Welch (jdw0156@auburn.edu)
+ *
+ */
+final class IntVectorKernels implements IntKernels.Vectorized {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+
+    @Override
+    public int min(int[] a, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector acc = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+        for (; i < bound; i += SPECIES.length()) {
+            acc = acc.min(IntVector.fromArray(SPECIES, a, i));
+        }
+        int min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+
+    @Override
+    public int max(int[] a, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector acc = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
+        for (; i < bound; i += SPECIES.length()) {
+            acc = acc.max(IntVector.fromArray(SPECIES, a, i));
+        }
+        int max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+
+    @Override
+    public int ceiling(int[] a, int from, int to, int key) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector acc = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            acc = acc.lanewise(VectorOperators.MIN, v, v.compare(VectorOperators.GE, key));
+        }
+        int min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            int x = a[i];
+            min = Math.min(min, x >= key ? x : Integer.MAX_VALUE);
+        }
+        return min;
+    }
+
+
+    @Override
+    public int floor(int[] a, int from, int to, int key) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector acc = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            acc = acc.lanewise(VectorOperators.MAX, v, v.compare(VectorOperators.LE, key));
+        }
+        int max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            int x = a[i];
+            max = Math.max(max, x <= key ? x : Integer.MIN_VALUE);
+        }
+        return max;
+    }
+
+
+    @Override
+    public int count(int[] a, int from, int to, int low, int high) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector acc = IntVector.zero(SPECIES);
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            VectorMask<Integer> in = v.compare(VectorOperators.GE, low)
+                .and(v.compare(VectorOperators.LE, high));
+            acc = acc.lanewise(VectorOperators.ADD, 1, in);
+        }
+        int count = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            int x = a[i];
+            count += (x >= low & x <= high) ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.NoSuchElementException;
+
+/**
+ * The ceiling and floor of a key in a collection, as returned by
+ * Selector.ceilingAndFloor. Either may be missing.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class Bounds<T> {
+
+    private final T ceiling;
+    private final boolean hasCeiling;
+    private final T floor;
+    private final boolean hasFloor;
+
+
+    Bounds(T ceiling, boolean hasCeiling, T floor, boolean hasFloor) {
+        this.ceiling = ceiling;
+        this.hasCeiling = hasCeiling;
+        this.floor = floor;
+        this.hasFloor = hasFloor;
+    }
+
+
+    /**
+     * Returns true if the collection has a value greater than or equal
+     * to the key.
+     *
+     * @return  true if there is a ceiling value
+     */
+    public boolean hasCeiling() {
+        return hasCeiling;
+    }
+
+
+    /**
+     * Returns the smallest value greater than or equal to the key. If
+     * there is no such value, this method throws a NoSuchElementException.
+     *
+     * @return  the ceiling value of the key
+     * @throws  NoSuchElementException as per above
+     */
+    public T ceiling() {
+        if (!hasCeiling) {
+            throw new NoSuchElementException("No value");
+        }
+        return ceiling;
+    }
+
+
+    /**
+     * Returns true if the collection has a value less than or equal to
+     * the key.
+     *
+     * @return  true if there is a floor value
+     */
+    public boolean hasFloor() {
+        return hasFloor;
+    }
+
+
+    /**
+     * Returns the largest value less than or equal to the key. If there
+     * is no such value, this method throws a NoSuchElementException.
+     *
+     * @return  the floor value of the key
+     * @throws  NoSuchElementException as per above
+     */
+    public T floor() {
+        if (!hasFloor) {
+            throw new NoSuchElementException("No value");
+        }
+        return floor;
+    }
+
+
+    /**
+     * Returns a string representation of these bounds.
+     *
+     * @return  the ceiling and floor, or "none" for a missing one
+     */
+    @Override
+    public String toString() {
+        return "ceiling = " + (hasCeiling ? String.valueOf(ceiling) : "none")
+            + ", floor = " + (hasFloor ? String.valueOf(floor) : "none");
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Comparator;
+
+/**
+ * The linear scan behind ceiling, floor and ceilingAndFloor in
+ * Selector, written to call the comparator as few times as possible.
+ * <p>
+ * Each value is compared with the key exactly once and the result is
+ * reused to decide which side it falls on. A value is compared with the
+ * current best only on its own side, and not at all once the best on
+ * that side equals the key, since nothing can beat an exact match. A
+ * combined ceiling and floor scan therefore costs at most two comparisons
+ * per value, where separate ceiling and floor scans cost up to three
+ * each.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+final class BoundsScan {
+
+    /**
+     * Can't instantiate this class.
+     */
+    private BoundsScan() { }
+
+
+    /**
+     * Scans values for the ceiling and/or floor of key under comp. Ties
+     * keep the earliest value, as the original scans did. If metrics is
+     * not null, the number of comparator calls is reported to it under
+     * the given operation name.
+     */
+    static <T> Bounds<T> scan(Iterable<T> values, T key, Comparator<T> comp,
+                              boolean wantCeiling, boolean wantFloor,
+                              SelectorMetrics metrics, String operation) {
+        T ceiling = null;
+        T floor = null;
+        boolean hasCeiling = false;
+        boolean hasFloor = false;
+        boolean ceilingExact = false;
+        boolean floorExact = false;
+        long count = 0;
+
+        for (T x : values) {
+            int cmp = comp.compare(x, key);
+            count++;
+            if (cmp >= 0 && wantCeiling && !ceilingExact) {
+                if (!hasCeiling) {
+                    ceiling = x;
+                    hasCeiling = true;
+                    ceilingExact = cmp == 0;
+                }
+                else if (cmp == 0) {
+                    ceiling = x;
+                    ceilingExact = true;
+                }
+                else {
+                    count++;
+                    if (comp.compare(x, ceiling) < 0) {
+                        ceiling = x;
+                    }
+                }
+            }
+            if (cmp <= 0 && wantFloor && !floorExact) {
+                if (!hasFloor) {
+                    floor = x;
+                    hasFloor = true;
+                    floorExact = cmp == 0;
+                }
+                else if (cmp == 0) {
+                    floor = x;
+                    floorExact = true;
+                }
+                else {
+                    count++;
+                    if (comp.compare(x, floor) > 0) {
+                        floor = x;
+                    }
+                }
+            }
+        }
+
+        if (metrics != null) {
+            metrics.comparisons(operation, count);
+        }
+        return new Bounds<T>(ceiling, hasCeiling, floor, hasFloor);
+    }
+}
@@ -0,0 +1,332 @@
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Selection engine behind kmin and kmax in Selector.
+ * <p>
+ * Selector defines the kth minimum as follows: coll is stably sorted by
+ * comp, which orders values by comp and then by their position in coll,
+ * and the sorted values are split into runs wherever a value is not equal
+ * to the one before it. The kth minimum is the first value of the kth run.
+ * The kth maximum is the same with both orders reversed, so a run is
+ * represented by its last occurrence in coll. Only neighbouring values are
+ * merged, so equal values that are separated by a different value in the
+ * sorted order count as separate runs, and only equals is used; hashCode
+ * is never called.
+ * <p>
+ * The kth run always starts within the first m values of the sorted order
+ * once those m values hold k runs, so both engines below find a prefix of
+ * the sorted order, sort just that prefix, and count its runs.
+ * <p>
+ * For small k, a single walk over coll keeps a bounded heap of the
+ * 2k best values in O(n log k) time and O(k) memory, without copying
+ * coll. If those values hold fewer than k runs, because of duplicates,
+ * the copying engine takes over.
+ * <p>
+ * Otherwise coll is copied into a scratch array (never touching coll
+ * itself), introselect moves the smallest m values to the front, and only
+ * they are sorted; m doubles until the prefix holds k runs. That takes
+ * expected O(n + k log k) time when duplicates are sparse and O(n log n)
+ * time at worst.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+final class CollectionSelect {
+
+    /** Ranks up to this bound are selected with a bounded heap. */
+    static final int HEAP_LIMIT = 64;
+
+    /** Ranges this small are finished with an insertion sort. */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * Can't instantiate this class.
+     */
+    private CollectionSelect() { }
+
+
+    /**
+     * Returns the kth minimum (or, if fromMax, the kth maximum) value
+     * of c under comp by walking c once with a bounded heap, falling back
+     * to quickSelect if the heap's values hold fewer than k runs. This
+     * method throws NoSuchElementException if there is no such value. The
+     * arguments must already have been checked by the caller.
+     */
+    static <T> T heapSelect(Collection<T> c, int k, Comparator<T> comp, boolean fromMax) {
+        int m = 2 * k;
+        Comparator<Candidate<T>> order = order(comp, fromMax);
+
+        // The root is the worst of the m best candidates seen so far.
+        PriorityQueue<Candidate<T>> heap = new PriorityQueue<Candidate<T>>(m + 1, order.reversed());
+
+        long index = 0;
+        for (T x : c) {
+            long i = index++;
+            if (heap.size() == m) {
+                // x comes after every candidate seen, so it only wins a tie when ranking from the top.
+                int cmp = comp.compare(x, heap.peek().value);
+                if (fromMax ? cmp < 0 : cmp >= 0) {
+                    continue;
+                }
+                heap.poll();
+            }
+            heap.add(new Candidate<T>(x, i));
+        }
+
+        // Polling gives the candidates worst first, so fill from the back.
+        Object[] prefix = new Object[heap.size()];
+        for (int j = prefix.length - 1; j >= 0; j--) {
+            prefix[j] = heap.poll().value;
+        }
+        int runs = 0;
+        for (int j = 0; j < prefix.length; j++) {
+            if (j == 0 || !Objects.equals(prefix[j - 1], prefix[j])) {
+                if (++runs == k) {
+                    @SuppressWarnings("unchecked")
+                    T kth = (T) prefix[j];
+                    return kth;
+                }
+            }
+        }
+        if (index <= m) {
+            throw new NoSuchElementException(k + (fromMax ? "th max" : "th min") + " is not valid.");
+        }
+        return quickSelect(c, k, comp, fromMax);
+    }
+
+
+    /**
+     * Returns the kth minimum (or, if fromMax, the kth maximum) value
+     * of c under comp using introselect over a copy of c. This method
+     * throws NoSuchElementException if there is no such value. The
+     * arguments must already have been checked by the caller.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T quickSelect(Collection<T> c, int k, Comparator<T> comp, boolean fromMax) {
+        // toArray is a bulk copy for array-backed lists and avoids a
+        // separate Iterator walk for every other collection.
+        Object[] values = c.toArray();
+        int p = new ComparatorRanking<T>(values, comp, fromMax).runStart(k);
+        if (p < 0) {
+            throw new NoSuchElementException(k + (fromMax ? "th max" : "th min") + " is not valid.");
+        }
+        return (T) values[p];
+    }
+
+
+    /**
+     * Returns the order in which values are ranked: by comp and then by
+     * position for kmin, and the reverse of both for kmax.
+     */
+    private static <T> Comparator<Candidate<T>> order(Comparator<T> comp, boolean fromMax) {
+        Comparator<Candidate<T>> ascending =
+            new Comparator<Candidate<T>>() {
+                public int compare(Candidate<T> a, Candidate<T> b) {
+                    int cmp = comp.compare(a.value, b.value);
+                    return cmp != 0 ? cmp : Long.compare(a.index, b.index);
+                }
+            };
+        return fromMax ? ascending.reversed() : ascending;
+    }
+
+
+    /**
+     * Values paired with their positions in the collection, ranked by a
+     * key and then by position (both reversed for kmax), with the
+     * introselect and sort that work on them in place. No two entries rank
+     * equal, so a two-way partition is enough. Subclasses supply the key
+     * comparison, and swap any per-entry keys they keep alongside.
+     */
+    abstract static class Ranking {
+        final Object[] values;
+        final int[] index;
+        private final boolean reversed;
+
+        Ranking(Object[] values, boolean reversed) {
+            this.values = values;
+            this.reversed = reversed;
+            this.index = new int[values.length];
+            for (int i = 0; i < index.length; i++) {
+                index[i] = i;
+            }
+        }
+
+        /** Compares the keys of the entries at i and j. */
+        abstract int compareKeys(int i, int j);
+
+        /** Swaps any per-entry state kept by a subclass. */
+        void swapKeys(int i, int j) { }
+
+        /**
+         * Returns the position of the first value of the kth run, or -1
+         * if there are fewer than k runs. The smallest m entries are
+         * moved to the front and sorted, with m doubling until they hold
+         * k runs; the entries sorted so far are never touched again.
+         */
+        int runStart(int k) {
+            int n = values.length;
+            int sorted = 0;
+            int runs = 0;
+            int m = Math.max(2 * k, INSERTION_THRESHOLD);
+            while (sorted < n) {
+                int end = (int) Math.min(n, (long) m);
+                if (end < n) {
+                    select(sorted, n - 1, end - 1, depth(n - sorted));
+                }
+                sort(sorted, end - 1, depth(end - sorted));
+                for (int i = sorted; i < end; i++) {
+                    if (i == 0 || !Objects.equals(values[i - 1], values[i])) {
+                        if (++runs == k) {
+                            return i;
+                        }
+                    }
+                }
+                sorted = end;
+                m = 2 * m;
+            }
+            return -1;
+        }
+
+        private static int depth(int n) {
+            return 2 * (32 - Integer.numberOfLeadingZeros(n));
+        }
+
+        private int compare(int i, int j) {
+            int cmp = compareKeys(i, j);
+            if (cmp == 0) {
+                cmp = Integer.compare(index[i], index[j]);
+            }
+            return reversed ? -cmp : cmp;
+        }
+
+        /**
+         * Moves the entry of the given rank within [lo..hi] into place,
+         * with smaller entries before it and larger ones after, and
+         * returns its position. Pivots are the median of three until
+         * depth runs out, then the median of medians.
+         */
+        private int select(int lo, int hi, int rank, int depth) {
+            while (hi - lo >= INSERTION_THRESHOLD) {
+                int p = partition(lo, hi, pivot(lo, hi, depth--));
+                if (rank == p) {
+                    return p;
+                }
+                if (rank < p) {
+                    hi = p - 1;
+                }
+                else {
+                    lo = p + 1;
+                }
+            }
+            insertionSort(lo, hi);
+            return rank;
+        }
+
+        /**
+         * Sorts [lo..hi] with quicksort on the same pivots as select,
+         * recursing into the smaller side.
+         */
+        private void sort(int lo, int hi, int depth) {
+            while (hi - lo >= INSERTION_THRESHOLD) {
+                int p = partition(lo, hi, pivot(lo, hi, depth--));
+                if (p - lo < hi - p) {
+                    sort(lo, p - 1, depth);
+                    lo = p + 1;
+                }
+                else {
+                    sort(p + 1, hi, depth);
+                    hi = p - 1;
+                }
+            }
+            insertionSort(lo, hi);
+        }
+
+        private int pivot(int lo, int hi, int depth) {
+            return depth > 0 ? medianOfThree(lo, (lo + hi) >>> 1, hi) : medianOfMedians(lo, hi);
+        }
+
+        private int partition(int lo, int hi, int pivot) {
+            swap(pivot, hi);
+            int store = lo;
+            for (int i = lo; i < hi; i++) {
+                if (compare(i, hi) < 0) {
+                    swap(i, store++);
+                }
+            }
+            swap(store, hi);
+            return store;
+        }
+
+        private int medianOfMedians(int lo, int hi) {
+            int groups = 0;
+            for (int i = lo; i <= hi; i += 5) {
+                int end = Math.min(i + 4, hi);
+                insertionSort(i, end);
+                swap(lo + groups++, (i + end) >>> 1);
+            }
+            return select(lo, lo + groups - 1, lo + (groups - 1) / 2, depth(groups));
+        }
+
+        private int medianOfThree(int a, int b, int c) {
+            if (compare(a, b) < 0) {
+                return compare(b, c) < 0 ? b : (compare(a, c) < 0 ? c : a);
+            }
+            return compare(a, c) < 0 ? a : (compare(b, c) < 0 ? c : b);
+        }
+
+        private void insertionSort(int lo, int hi) {
+            for (int i = lo + 1; i <= hi; i++) {
+                for (int j = i; j > lo && compare(j, j - 1) < 0; j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private void swap(int i, int j) {
+            Object v = values[i];
+            values[i] = values[j];
+            values[j] = v;
+            int x = index[i];
+            index[i] = index[j];
+            index[j] = x;
+            swapKeys(i, j);
+        }
+    }
+
+
+    /**
+     * A Ranking whose key is the value itself, compared with comp.
+     */
+    private static final class ComparatorRanking<T> extends Ranking {
+        private final Comparator<T> comp;
+
+        ComparatorRanking(Object[] values, Comparator<T> comp, boolean reversed) {
+            super(values, reversed);
+            this.comp = comp;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int compareKeys(int i, int j) {
+            return comp.compare((T) values[i], (T) values[j]);
+        }
+    }
+
+
+    /**
+     * A value from the collection paired with its position.
+     */
+    private static final class Candidate<T> {
+        final T value;
+        final long index;
+
+        Candidate(T value, long index) {
+            this.value = value;
+            this.index = index;
+        }
+    }
+}
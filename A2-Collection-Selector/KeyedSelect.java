@@ -0,0 +1,180 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Selection engine behind the key-extractor methods of Selector, such as
+ * minByLong and kminByDouble.
+ * <p>
+ * Each method answers the same question as the Selector method that takes
+ * Comparator.comparingLong(key), but calls key exactly once per value and
+ * compares the extracted longs directly, so there is no boxing and no
+ * comparator call in the inner loops. Scans keep only the key of the best
+ * value so far; kmin and kmax extract every key into a long[] kept in step
+ * with a copy of the values, and rank them with the same engine and run
+ * rules as CollectionSelect.
+ * <p>
+ * Double keys are mapped to longs that sort the way Double.compare does,
+ * and int keys are widened, so all three key types share the long code.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+final class KeyedSelect {
+
+    /**
+     * Can't instantiate this class.
+     */
+    private KeyedSelect() { }
+
+
+    /**
+     * Returns a long key that orders values as Double.compare orders
+     * their double keys.
+     */
+    static <T> ToLongFunction<T> ofDouble(ToDoubleFunction<? super T> key) {
+        return x -> order(key.applyAsDouble(x));
+    }
+
+
+    /**
+     * Returns a long key equal to the int key.
+     */
+    static <T> ToLongFunction<T> ofInt(ToIntFunction<? super T> key) {
+        return x -> key.applyAsInt(x);
+    }
+
+
+    /**
+     * Returns a long that sorts as d does under Double.compare: NaN above
+     * everything and -0.0 below 0.0.
+     */
+    static long order(double d) {
+        long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+
+    /**
+     * Returns the value of c with the smallest key (or, if fromMax, the
+     * largest), keeping the first of equal keys. The arguments must
+     * already have been checked by the caller.
+     */
+    static <T> T best(Collection<T> c, ToLongFunction<? super T> key, boolean fromMax) {
+        T best = null;
+        long bestKey = 0;
+        boolean found = false;
+        for (T x : c) {
+            long k = key.applyAsLong(x);
+            if (!found || (fromMax ? k > bestKey : k < bestKey)) {
+                best = x;
+                bestKey = k;
+                found = true;
+            }
+        }
+        return best;
+    }
+
+
+    /**
+     * Returns the value of c with the smallest key at or above bound (or,
+     * if floor, the largest key at or below it), keeping the first of
+     * equal keys. This method throws NoSuchElementException if there is
+     * no such value. The arguments must already have been checked by the
+     * caller.
+     */
+    static <T> T bound(Collection<T> c, long bound, ToLongFunction<? super T> key, boolean floor) {
+        T best = null;
+        long bestKey = 0;
+        boolean found = false;
+        for (T x : c) {
+            long k = key.applyAsLong(x);
+            if (floor ? k > bound : k < bound) {
+                continue;
+            }
+            if (!found || (floor ? k > bestKey : k < bestKey)) {
+                best = x;
+                bestKey = k;
+                found = true;
+                if (k == bound) {
+                    break;
+                }
+            }
+        }
+        if (!found) {
+            throw new NoSuchElementException("No value");
+        }
+        return best;
+    }
+
+
+    /**
+     * Returns the values of c whose keys are in [low..high], in the order
+     * c hands them out. This method throws NoSuchElementException if there
+     * are none. The arguments must already have been checked by the
+     * caller.
+     */
+    static <T> Collection<T> range(Collection<T> c, long low, long high, ToLongFunction<? super T> key) {
+        ArrayList<T> result = new ArrayList<T>();
+        for (T x : c) {
+            long k = key.applyAsLong(x);
+            if (k >= low && k <= high) {
+                result.add(x);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new NoSuchElementException("None of the values are within the specified range");
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the kth minimum (or, if fromMax, the kth maximum) value of
+     * c by key, with the same run rules as CollectionSelect. This method
+     * throws NoSuchElementException if there is no such value. The
+     * arguments must already have been checked by the caller.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T select(Collection<T> c, int k, ToLongFunction<? super T> key, boolean fromMax) {
+        Object[] values = c.toArray();
+        long[] keys = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            keys[i] = key.applyAsLong((T) values[i]);
+        }
+        int p = new KeyRanking(values, keys, fromMax).runStart(k);
+        if (p < 0) {
+            throw new NoSuchElementException(k + (fromMax ? "th max" : "th min") + " is not valid.");
+        }
+        return (T) values[p];
+    }
+
+
+    /**
+     * A CollectionSelect.Ranking whose keys are extracted longs, kept in
+     * step with the values.
+     */
+    private static final class KeyRanking extends CollectionSelect.Ranking {
+        private final long[] keys;
+
+        KeyRanking(Object[] values, long[] keys, boolean reversed) {
+            super(values, reversed);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareKeys(int i, int j) {
+            return Long.compare(keys[i], keys[j]);
+        }
+
+        @Override
+        void swapKeys(int i, int j) {
+            long k = keys[i];
+            keys[i] = keys[j];
+            keys[j] = k;
+        }
+    }
+}
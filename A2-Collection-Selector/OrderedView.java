@@ -0,0 +1,325 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of a collection, sorted once so that repeated
+ * Selector queries against it with the same comparator don't recopy or
+ * rescan the collection. Instances are obtained from Selector.index.
+ * <p>
+ * The values are kept in a stable sort by comp, so equal values keep the
+ * order the collection handed them out in, and the start of every run of
+ * equal neighbours is recorded, which is exactly how Selector defines
+ * distinct values for kmin and kmax. min, max, kmin, kmax and size take
+ * constant time; ceiling, floor and range take O(log n) time. Each method
+ * returns the same value as the Selector method of the same name would
+ * for the snapshotted collection, except that range returns the values
+ * in sorted order rather than in collection order.
+ * <p>
+ * Later changes to the collection are not seen. Values added at the end
+ * can be folded in with append, which sorts only the new values and
+ * merges them into a new view.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class OrderedView<T> {
+
+    /** The values, stably sorted by comp. */
+    private final Object[] values;
+
+    /** runs[r] is the position of the first value of the rth distinct run, plus a final values.length. */
+    private final int[] runs;
+
+    /** The position of the value returned by max. */
+    private final int maxIndex;
+
+    private final Comparator<T> comp;
+
+
+    private OrderedView(Object[] values, Comparator<T> comp) {
+        this.values = values;
+        this.comp = comp;
+
+        int n = values.length;
+        int[] starts = new int[n + 1];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || !Objects.equals(values[i], values[i - 1])) {
+                starts[count++] = i;
+            }
+        }
+        starts[count] = n;
+        this.runs = Arrays.copyOf(starts, count + 1);
+        this.maxIndex = n == 0 ? -1 : firstEqual(n - 1);
+    }
+
+
+    /**
+     * Returns a view of a snapshot of c sorted by comp. The arguments must
+     * already have been checked by the caller.
+     */
+    static <T> OrderedView<T> of(Collection<T> c, Comparator<T> comp) {
+        return new OrderedView<T>(sorted(c, comp), comp);
+    }
+
+
+    /**
+     * Returns the number of values in the view, including duplicates.
+     *
+     * @return  the number of values
+     */
+    public int size() {
+        return values.length;
+    }
+
+
+    /**
+     * Returns the number of distinct values in the view, which is the
+     * largest k for which kmin and kmax have an answer.
+     *
+     * @return  the number of distinct values
+     */
+    public int distinctCount() {
+        return runs.length - 1;
+    }
+
+
+    /**
+     * Returns the minimum value in the view, as Selector.min. If the view
+     * is empty, this method throws a NoSuchElementException.
+     *
+     * @return  the minimum value
+     * @throws  NoSuchElementException as per above
+     */
+    public T min() {
+        checkNotEmpty();
+        return value(0);
+    }
+
+
+    /**
+     * Returns the maximum value in the view, as Selector.max. If the view
+     * is empty, this method throws a NoSuchElementException.
+     *
+     * @return  the maximum value
+     * @throws  NoSuchElementException as per above
+     */
+    public T max() {
+        checkNotEmpty();
+        return value(maxIndex);
+    }
+
+
+    /**
+     * Selects the kth minimum value in the view, as Selector.kmin. If the
+     * view is empty or if there is no kth minimum value, this method
+     * throws a NoSuchElementException.
+     *
+     * @param k   the k-selection value
+     * @return    the kth minimum value
+     * @throws    NoSuchElementException as per above
+     */
+    public T kmin(int k) {
+        checkNotEmpty();
+        if (k < 1 || k > distinctCount()) {
+            throw new NoSuchElementException(k + "th min is not valid.");
+        }
+        return value(runs[k - 1]);
+    }
+
+
+    /**
+     * Selects the kth maximum value in the view, as Selector.kmax. If the
+     * view is empty or if there is no kth maximum value, this method
+     * throws a NoSuchElementException.
+     *
+     * @param k   the k-selection value
+     * @return    the kth maximum value
+     * @throws    NoSuchElementException as per above
+     */
+    public T kmax(int k) {
+        checkNotEmpty();
+        int d = distinctCount();
+        if (k < 1 || k > d) {
+            throw new NoSuchElementException(k + "th max is not valid.");
+        }
+        // Selector.kmax represents a run by its last value.
+        return value(runs[d - k + 1] - 1);
+    }
+
+
+    /**
+     * Returns an unmodifiable List of all the values in the view that are
+     * greater than or equal to low and less than or equal to high, in
+     * sorted order and including duplicates. The list is a view of the
+     * snapshot, so no values are copied. If the view is empty or no values
+     * fall into the range, this method throws a NoSuchElementException.
+     *
+     * @param low     the lower bound of the range
+     * @param high    the upper bound of the range
+     * @return        a List of values between low and high
+     * @throws        NoSuchElementException as per above
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> range(T low, T high) {
+        checkNotEmpty();
+        int from = lowerBound(low);
+        int to = upperBound(high);
+        if (from >= to) {
+            throw new NoSuchElementException("None of the values are within the specified range");
+        }
+        return Collections.unmodifiableList((List<T>) Arrays.asList(values).subList(from, to));
+    }
+
+
+    /**
+     * Returns the smallest value in the view that is greater than or
+     * equal to key, as Selector.ceiling. If the view is empty or if there
+     * is no qualifying value, this method throws a NoSuchElementException.
+     *
+     * @param key   the reference value
+     * @return      the ceiling value of key
+     * @throws      NoSuchElementException as per above
+     */
+    public T ceiling(T key) {
+        checkNotEmpty();
+        int i = lowerBound(key);
+        if (i == values.length) {
+            throw new NoSuchElementException("No value");
+        }
+        return value(i);
+    }
+
+
+    /**
+     * Returns the largest value in the view that is less than or equal to
+     * key, as Selector.floor. If the view is empty or if there is no
+     * qualifying value, this method throws a NoSuchElementException.
+     *
+     * @param key   the reference value
+     * @return      the floor value of key
+     * @throws      NoSuchElementException as per above
+     */
+    public T floor(T key) {
+        checkNotEmpty();
+        int i = upperBound(key);
+        if (i == 0) {
+            throw new NoSuchElementException("No value");
+        }
+        // Selector.floor keeps the first of several equal candidates.
+        return value(firstEqual(i - 1));
+    }
+
+
+    /**
+     * Returns a new view of this snapshot followed by the values in added,
+     * as if the collection had been indexed after they were appended. Only
+     * the new values are sorted; they are then merged with this view in
+     * linear time. This view is not changed. If added is null, this method
+     * throws an IllegalArgumentException.
+     *
+     * @param added   the values appended to the collection
+     * @return        a view including the appended values
+     * @throws        IllegalArgumentException as per above
+     */
+    public OrderedView<T> append(Collection<T> added) {
+        if (added == null) {
+            throw new IllegalArgumentException("Collection must not be null.");
+        }
+        if (added.isEmpty()) {
+            return this;
+        }
+        Object[] b = sorted(added, comp);
+        Object[] merged = new Object[values.length + b.length];
+        int i = 0;
+        int j = 0;
+        int m = 0;
+        while (i < values.length && j < b.length) {
+            // Ties go to the old values, which came first in the collection.
+            if (compare(b[j], values[i]) < 0) {
+                merged[m++] = b[j++];
+            }
+            else {
+                merged[m++] = values[i++];
+            }
+        }
+        System.arraycopy(values, i, merged, m, values.length - i);
+        System.arraycopy(b, j, merged, m + values.length - i, b.length - j);
+        return new OrderedView<T>(merged, comp);
+    }
+
+
+    /**
+     * Returns a copy of c stably sorted by comp.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Object[] sorted(Collection<T> c, Comparator<T> comp) {
+        Object[] a = c.toArray();
+        Arrays.sort(a, (Comparator<Object>) comp);
+        return a;
+    }
+
+
+    /** Returns the position of the first value that is >= key. */
+    private int lowerBound(T key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comp.compare(value(mid), key) < 0) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+
+    /** Returns the position of the first value that is > key. */
+    private int upperBound(T key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comp.compare(value(mid), key) <= 0) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+
+    /** Returns the position of the first value that compares equal to values[i]. */
+    private int firstEqual(int i) {
+        return lowerBound(value(i));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return comp.compare((T) a, (T) b);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private T value(int i) {
+        return (T) values[i];
+    }
+
+
+    private void checkNotEmpty() {
+        if (values.length == 0) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+    }
+}
@@ -0,0 +1,338 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join versions of the linear-time selection methods in Selector,
+ * for large collections and expensive comparators. Instances are
+ * obtained from Selector.parallel().
+ * <p>
+ * Each method has the same contract as the Selector method of the same
+ * name. The collection's spliterator is split with trySplit until each
+ * piece holds at most LEAF_SIZE elements, the pieces are scanned in the
+ * common fork/join pool, and the partial results are combined. Because
+ * trySplit hands out a prefix, combining left before right keeps
+ * encounter order, so range returns values in the same order as
+ * Selector.range and ties are resolved the same way. Collections that
+ * report fewer elements than the threshold, and sorted sets already kept
+ * in comp's order, are handled by Selector directly, which answers from
+ * the set's own order instead of scanning it.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class ParallelSelector {
+
+    /** Default size below which the sequential methods are used. */
+    static final int DEFAULT_THRESHOLD = 1 << 15;
+
+    /** The most elements scanned by one leaf task. */
+    private static final int LEAF_SIZE = 1 << 12;
+
+    /** The shared instance with the default threshold. */
+    static final ParallelSelector DEFAULT = new ParallelSelector(DEFAULT_THRESHOLD);
+
+    /** Collections smaller than this are handled sequentially. */
+    private final int threshold;
+
+
+    private ParallelSelector(int threshold) {
+        this.threshold = threshold;
+    }
+
+
+    /**
+     * Returns a ParallelSelector that handles collections smaller than
+     * threshold sequentially. This method throws IllegalArgumentException
+     * if threshold is less than one.
+     *
+     * @param threshold  the smallest collection size split across threads
+     * @return           a ParallelSelector using the given threshold
+     * @throws           IllegalArgumentException as per above
+     */
+    public ParallelSelector withThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive.");
+        }
+        return new ParallelSelector(threshold);
+    }
+
+
+    /**
+     * Returns the size below which collections are handled sequentially.
+     *
+     * @return  the threshold
+     */
+    public int threshold() {
+        return threshold;
+    }
+
+
+    /**
+     * Returns the minimum value in c, as Selector.min.
+     *
+     * @param c       the Collection from which the minimum is selected
+     * @param comp    the Comparator that defines the total order on T
+     * @return        the minimum value in c
+     * @throws        IllegalArgumentException as per Selector.min
+     * @throws        NoSuchElementException as per Selector.min
+     */
+    public <T> T min(Collection<T> c, Comparator<T> comp) {
+        Spliterator<T> s = split(c, comp);
+        if (s == null) {
+            return Selector.min(c, comp);
+        }
+        return best(s, new Best<T>(comp, -1, null, 0));
+    }
+
+
+    /**
+     * Returns the maximum value in c, as Selector.max.
+     *
+     * @param c       the Collection from which the maximum is selected
+     * @param comp    the Comparator that defines the total order on T
+     * @return        the maximum value in c
+     * @throws        IllegalArgumentException as per Selector.max
+     * @throws        NoSuchElementException as per Selector.max
+     */
+    public <T> T max(Collection<T> c, Comparator<T> comp) {
+        Spliterator<T> s = split(c, comp);
+        if (s == null) {
+            return Selector.max(c, comp);
+        }
+        return best(s, new Best<T>(comp, 1, null, 0));
+    }
+
+
+    /**
+     * Returns the smallest value in c that is greater than or equal to
+     * key, as Selector.ceiling.
+     *
+     * @param c       the Collection from which the ceiling value is selected
+     * @param key     the reference value
+     * @param comp    the Comparator that defines the total order on T
+     * @return        the ceiling value of key in c
+     * @throws        IllegalArgumentException as per Selector.ceiling
+     * @throws        NoSuchElementException as per Selector.ceiling
+     */
+    public <T> T ceiling(Collection<T> c, T key, Comparator<T> comp) {
+        Spliterator<T> s = split(c, comp);
+        if (s == null) {
+            return Selector.ceiling(c, key, comp);
+        }
+        return best(s, new Best<T>(comp, -1, key, 1));
+    }
+
+
+    /**
+     * Returns the largest value in c that is less than or equal to key,
+     * as Selector.floor.
+     *
+     * @param c       the Collection from which the floor value is selected
+     * @param key     the reference value
+     * @param comp    the Comparator that defines the total order on T
+     * @return        the floor value of key in c
+     * @throws        IllegalArgumentException as per Selector.floor
+     * @throws        NoSuchElementException as per Selector.floor
+     */
+    public <T> T floor(Collection<T> c, T key, Comparator<T> comp) {
+        Spliterator<T> s = split(c, comp);
+        if (s == null) {
+            return Selector.floor(c, key, comp);
+        }
+        return best(s, new Best<T>(comp, 1, key, -1));
+    }
+
+
+    /**
+     * Returns a new Collection containing all the values in c between
+     * low and high inclusive, in encounter order, as Selector.range.
+     *
+     * @param c       the Collection from which the range values are selected
+     * @param low     the lower bound of the range
+     * @param high    the upper bound of the range
+     * @param comp    the Comparator that defines the total order on T
+     * @return        a Collection of values between low and high
+     * @throws        IllegalArgumentException as per Selector.range
+     * @throws        NoSuchElementException as per Selector.range
+     */
+    public <T> Collection<T> range(Collection<T> c, T low, T high, Comparator<T> comp) {
+        Spliterator<T> s = split(c, comp);
+        if (s == null) {
+            return Selector.range(c, low, high, comp);
+        }
+        ArrayList<T> result = ForkJoinPool.commonPool().invoke(new RangeTask<T>(s, low, high, comp));
+        if (result.isEmpty()) {
+            throw new NoSuchElementException("None of the values are within the specified range");
+        }
+        return result;
+    }
+
+
+    /**
+     * Checks the arguments and returns a spliterator over c if c is
+     * large enough to split, or null if it should be handled
+     * sequentially because it is small or already sorted by comp.
+     */
+    private <T> Spliterator<T> split(Collection<T> c, Comparator<T> comp) {
+        if (c == null || comp == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        if (SortedViews.sorted(c, comp) != null) {
+            return null;
+        }
+        Spliterator<T> s = c.spliterator();
+        return s.estimateSize() < threshold ? null : s;
+    }
+
+
+    private static <T> T best(Spliterator<T> s, Best<T> identity) {
+        Best<T> best = ForkJoinPool.commonPool().invoke(new BestTask<T>(s, identity));
+        if (!best.found) {
+            throw new NoSuchElementException(best.keySide == 0 ? "Collection must have elements" : "No value");
+        }
+        return best.value;
+    }
+
+
+    /**
+     * The best value seen so far by one task. Values are kept if they
+     * are on the keySide of key (1 for at or above, -1 for at or below,
+     * 0 when there is no key) and beat the
+     * current value in the direction given by sign: -1 keeps the
+     * smallest value, 1 the largest. Ties keep the earlier value.
+     */
+    private static final class Best<T> {
+        final Comparator<T> comp;
+        final int sign;
+        final T key;
+        final int keySide;
+        T value;
+        boolean found;
+
+        Best(Comparator<T> comp, int sign, T key, int keySide) {
+            this.comp = comp;
+            this.sign = sign;
+            this.key = key;
+            this.keySide = keySide;
+        }
+
+        Best<T> empty() {
+            return new Best<T>(comp, sign, key, keySide);
+        }
+
+        void accept(T x) {
+            if (keySide != 0) {
+                // Compare signs rather than multiplying, which overflows on Integer.MIN_VALUE.
+                int cmp = comp.compare(x, key);
+                if (keySide > 0 ? cmp < 0 : cmp > 0) {
+                    return;
+                }
+            }
+            offer(x);
+        }
+
+        void offer(T x) {
+            if (!found) {
+                value = x;
+                found = true;
+                return;
+            }
+            int cmp = comp.compare(x, value);
+            if (sign > 0 ? cmp > 0 : cmp < 0) {
+                value = x;
+            }
+        }
+
+        Best<T> combine(Best<T> right) {
+            if (right.found) {
+                offer(right.value);
+            }
+            return this;
+        }
+    }
+
+
+    /**
+     * Finds the best value in a spliterator, splitting it in half until
+     * the pieces are small.
+     */
+    private static final class BestTask<T> extends RecursiveTask<Best<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<T> s;
+        private final Best<T> identity;
+
+        BestTask(Spliterator<T> s, Best<T> identity) {
+            this.s = s;
+            this.identity = identity;
+        }
+
+        @Override
+        protected Best<T> compute() {
+            if (s.estimateSize() > LEAF_SIZE) {
+                Spliterator<T> prefix = s.trySplit();
+                if (prefix != null) {
+                    BestTask<T> left = new BestTask<T>(prefix, identity);
+                    left.fork();
+                    Best<T> right = new BestTask<T>(s, identity).compute();
+                    return left.join().combine(right);
+                }
+            }
+            Best<T> best = identity.empty();
+            s.forEachRemaining(best::accept);
+            return best;
+        }
+    }
+
+
+    /**
+     * Collects the values of a spliterator in [low..high], splitting it
+     * in half until the pieces are small and joining the pieces' results
+     * in encounter order.
+     */
+    private static final class RangeTask<T> extends RecursiveTask<ArrayList<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<T> s;
+        private final T low;
+        private final T high;
+        private final Comparator<T> comp;
+
+        RangeTask(Spliterator<T> s, T low, T high, Comparator<T> comp) {
+            this.s = s;
+            this.low = low;
+            this.high = high;
+            this.comp = comp;
+        }
+
+        @Override
+        protected ArrayList<T> compute() {
+            if (s.estimateSize() > LEAF_SIZE) {
+                Spliterator<T> prefix = s.trySplit();
+                if (prefix != null) {
+                    RangeTask<T> left = new RangeTask<T>(prefix, low, high, comp);
+                    left.fork();
+                    ArrayList<T> right = new RangeTask<T>(s, low, high, comp).compute();
+                    ArrayList<T> result = left.join();
+                    result.addAll(right);
+                    return result;
+                }
+            }
+            ArrayList<T> result = new ArrayList<T>();
+            s.forEachRemaining(x -> {
+                if ((comp.compare(x, low) >= 0) && (comp.compare(x, high) <= 0)) {
+                    result.add(x);
+                }
+            });
+            return result;
+        }
+    }
+}
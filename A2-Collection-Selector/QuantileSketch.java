@@ -0,0 +1,398 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * A mergeable KLL quantile sketch that answers approximate order
+ * statistics over more values than can be kept, in memory that does not
+ * grow with the number of values. Instances are obtained from
+ * Selector.sketch.
+ * <p>
+ * The sketch keeps a stack of levels; a value at level h stands for 2^h
+ * of the values added. When the levels hold more values than their
+ * capacities allow, the lowest full level is sorted and every other value
+ * (starting at a random one of the first two) moves up a level. Level
+ * capacities shrink by a factor of 2/3 going down from the top, so the
+ * sketch keeps about 3k values plus a few per level. With k chosen from
+ * epsilon as below, the rank of an answer is within epsilon * count() of
+ * the requested rank with high probability.
+ * <p>
+ * Ranks here count duplicates, the way a sorted copy of the values would
+ * be indexed. Selector.kmin and kmax rank distinct values instead, which
+ * cannot be estimated in bounded memory, so kmin and kmax of a sketch are
+ * approximations of positional ranks and agree with Selector only when
+ * the values are distinct. min and max are exact.
+ * <p>
+ * Sketches are not thread safe. Give each thread or shard its own sketch
+ * with the same comparator and epsilon, and combine them with merge.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class QuantileSketch<T> {
+
+    /** The smallest capacity of the top level. */
+    private static final int MIN_K = 8;
+
+    /** The capacity of any level is at least this. */
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private final Comparator<T> comp;
+    private final double epsilon;
+
+    /** The capacity of the top level. */
+    private final int k;
+
+    /** levels.get(h) holds the values of weight 2^h, unsorted. */
+    private final ArrayList<ArrayList<T>> levels = new ArrayList<ArrayList<T>>();
+
+    /** The number of values held across all levels. */
+    private int retained;
+
+    /** capacities[h] is the capacity of level h; both change only when a level is added. */
+    private int[] capacities = new int[0];
+    private int totalCapacity;
+
+    private long count;
+    private T min;
+    private T max;
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    /** The held values sorted by comp with their running weights, or null if stale. */
+    private Object[] sorted;
+    private long[] cumulative;
+
+
+    QuantileSketch(Comparator<T> comp, double epsilon) {
+        this.comp = comp;
+        this.epsilon = epsilon;
+        // A KLL sketch with top capacity k has normalized rank error of about 1.65 / k.
+        this.k = Math.max(MIN_K, (int) Math.ceil(1.65 / epsilon));
+        addLevel();
+    }
+
+
+    /**
+     * Adds a value to the sketch. If x is null, this method throws an
+     * IllegalArgumentException.
+     *
+     * @param x   the value to add
+     * @throws    IllegalArgumentException as per above
+     */
+    public void update(T x) {
+        if (x == null) {
+            throw new IllegalArgumentException("Sketch values must not be null.");
+        }
+        if (count == 0 || comp.compare(x, min) < 0) {
+            min = x;
+        }
+        if (count == 0 || comp.compare(x, max) > 0) {
+            max = x;
+        }
+        count++;
+        levels.get(0).add(x);
+        retained++;
+        sorted = null;
+        compress();
+    }
+
+
+    /**
+     * Adds every value summarized by other into this sketch. The two
+     * sketches must use the same comparator and epsilon; other is not
+     * changed. If other is null or was made with a different epsilon, this
+     * method throws an IllegalArgumentException.
+     *
+     * @param other   the sketch to merge into this one
+     * @throws        IllegalArgumentException as per above
+     */
+    public void merge(QuantileSketch<T> other) {
+        if (other == null || other.k != k) {
+            throw new IllegalArgumentException("Sketches are not compatible.");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0 || comp.compare(other.min, min) < 0) {
+            min = other.min;
+        }
+        if (count == 0 || comp.compare(other.max, max) > 0) {
+            max = other.max;
+        }
+        count += other.count;
+        while (levels.size() < other.levels.size()) {
+            addLevel();
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            levels.get(h).addAll(other.levels.get(h));
+            retained += other.levels.get(h).size();
+        }
+        sorted = null;
+        compress();
+    }
+
+
+    /**
+     * Returns the number of values added, including those merged in.
+     *
+     * @return  the number of values summarized
+     */
+    public long count() {
+        return count;
+    }
+
+
+    /**
+     * Returns the rank error bound this sketch was made with.
+     *
+     * @return  epsilon
+     */
+    public double epsilon() {
+        return epsilon;
+    }
+
+
+    /**
+     * Returns the minimum value added. If the sketch is empty, this method
+     * throws a NoSuchElementException.
+     *
+     * @return  the minimum value
+     * @throws  NoSuchElementException as per above
+     */
+    public T min() {
+        checkNotEmpty();
+        return min;
+    }
+
+
+    /**
+     * Returns the maximum value added. If the sketch is empty, this method
+     * throws a NoSuchElementException.
+     *
+     * @return  the maximum value
+     * @throws  NoSuchElementException as per above
+     */
+    public T max() {
+        checkNotEmpty();
+        return max;
+    }
+
+
+    /**
+     * Returns an approximation of the value at the given fraction of the
+     * way through the values in sorted order: 0 gives the minimum, 0.5 the
+     * median and 1 the maximum. If the sketch is empty, this method throws
+     * a NoSuchElementException. If phi is not between 0 and 1, this method
+     * throws an IllegalArgumentException.
+     *
+     * @param phi   the normalized rank of the value wanted
+     * @return      a value whose rank is within epsilon of phi
+     * @throws      IllegalArgumentException as per above
+     * @throws      NoSuchElementException as per above
+     */
+    public T quantile(double phi) {
+        if (!(phi >= 0 && phi <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        }
+        checkNotEmpty();
+        return atRank(Math.max(1, (long) Math.ceil(phi * count)));
+    }
+
+
+    /**
+     * Returns an approximation of the number of values added that are
+     * less than or equal to x. If x is null, this method throws an
+     * IllegalArgumentException.
+     *
+     * @param x   the reference value
+     * @return    the approximate number of values at or below x
+     * @throws    IllegalArgumentException as per above
+     */
+    public long rank(T x) {
+        if (x == null) {
+            throw new IllegalArgumentException("Value must not be null.");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        prepare();
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comp.compare(value(mid), x) <= 0) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo == 0 ? 0 : cumulative[lo - 1];
+    }
+
+
+    /**
+     * Returns an approximation of the kth smallest value added, counting
+     * duplicates. If the sketch is empty or k is not between 1 and
+     * count(), this method throws a NoSuchElementException.
+     *
+     * @param k   the k-selection value
+     * @return    a value whose rank is within epsilon * count() of k
+     * @throws    NoSuchElementException as per above
+     */
+    public T kmin(long k) {
+        checkNotEmpty();
+        if (k < 1 || k > count) {
+            throw new NoSuchElementException(k + "th min is not valid.");
+        }
+        return atRank(k);
+    }
+
+
+    /**
+     * Returns an approximation of the kth largest value added, counting
+     * duplicates. If the sketch is empty or k is not between 1 and
+     * count(), this method throws a NoSuchElementException.
+     *
+     * @param k   the k-selection value
+     * @return    a value whose rank from the top is within epsilon * count() of k
+     * @throws    NoSuchElementException as per above
+     */
+    public T kmax(long k) {
+        checkNotEmpty();
+        if (k < 1 || k > count) {
+            throw new NoSuchElementException(k + "th max is not valid.");
+        }
+        return atRank(count - k + 1);
+    }
+
+
+    /**
+     * Returns the held value whose running weight first reaches rank,
+     * using the exact min and max at the ends.
+     */
+    private T atRank(long rank) {
+        if (rank <= 1) {
+            return min;
+        }
+        if (rank >= count) {
+            return max;
+        }
+        prepare();
+        int i = Arrays.binarySearch(cumulative, rank);
+        return value(i >= 0 ? i : -i - 1);
+    }
+
+
+    /**
+     * Sorts the held values and computes their running weights, unless
+     * that has been done since the last change.
+     */
+    @SuppressWarnings("unchecked")
+    private void prepare() {
+        if (sorted != null) {
+            return;
+        }
+        Object[] values = new Object[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            for (T x : levels.get(h)) {
+                values[n] = x;
+                weights[n] = 1L << h;
+                n++;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> comp.compare((T) values[i], (T) values[j]));
+
+        sorted = new Object[n];
+        cumulative = new long[n];
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sorted[i] = values[order[i]];
+            sum += weights[order[i]];
+            cumulative[i] = sum;
+        }
+    }
+
+
+    /**
+     * Compacts full levels until the held values fit the total capacity.
+     * While they don't fit, some level must be at or over its own
+     * capacity, so each pass makes progress.
+     */
+    private void compress() {
+        while (retained > totalCapacity) {
+            for (int h = 0; h < levels.size(); h++) {
+                if (levels.get(h).size() >= capacities[h]) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Sorts level h and moves every other value up to level h + 1,
+     * leaving one value behind if the level has an odd number of them.
+     */
+    private void compact(int h) {
+        if (h == levels.size() - 1) {
+            addLevel();
+        }
+        ArrayList<T> level = levels.get(h);
+        ArrayList<T> up = levels.get(h + 1);
+        level.sort(comp);
+
+        int size = level.size();
+        int start = size % 2;
+        for (int i = start + random.nextInt(2); i < size; i += 2) {
+            up.add(level.get(i));
+        }
+        retained -= (size - start) / 2;
+        level.subList(start, size).clear();
+    }
+
+
+    /**
+     * Adds an empty top level and recomputes the level capacities, since
+     * every level's capacity depends on its depth below the top.
+     */
+    private void addLevel() {
+        levels.add(new ArrayList<T>());
+        capacities = new int[levels.size()];
+        totalCapacity = 0;
+        for (int h = 0; h < capacities.length; h++) {
+            capacities[h] = levelCapacity(h);
+            totalCapacity += capacities[h];
+        }
+    }
+
+
+    /** Returns the capacity of level h, k * (2/3)^depth below the top. */
+    private int levelCapacity(int h) {
+        int depth = levels.size() - 1 - h;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private T value(int i) {
+        return (T) sorted[i];
+    }
+
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new NoSuchElementException("Sketch must have elements");
+        }
+    }
+}
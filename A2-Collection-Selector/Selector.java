@@ -3,7 +3,13 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 /**
  * Defines a library of selection methods on Collections.
@@ -22,6 +28,101 @@ public final class Selector {
     private Selector() { }
 
 
+    /**
+     * Returns a ParallelSelector whose methods split large collections
+     * across the common fork/join pool. Collections smaller than its
+     * threshold are handled by the methods of this class.
+     *
+     * @return  the shared ParallelSelector
+     */
+    public static ParallelSelector parallel() {
+        return ParallelSelector.DEFAULT;
+    }
+
+
+    /**
+     * Returns an OrderedView of a sorted snapshot of the Collection coll,
+     * for answering many queries against the same values and Comparator
+     * comp without rescanning coll each time. If either coll or comp is
+     * null, this method throws an IllegalArgumentException. This method
+     * will not change coll in any way.
+     *
+     * @param coll    the Collection to take a snapshot of
+     * @param comp    the Comparator that defines the total order on T
+     * @return        an OrderedView of coll
+     * @throws        IllegalArgumentException as per above
+     */
+    public static <T> OrderedView<T> index(Collection<T> c, Comparator<T> comp) {
+        if (c == null || comp == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        return OrderedView.of(c, comp);
+    }
+
+
+    /**
+     * Returns an empty SlidingWindowSelector that answers queries over the
+     * last size values added to it, as defined by the Comparator comp. If
+     * size is less than one or comp is null, this method throws an
+     * IllegalArgumentException.
+     *
+     * @param size    the number of most recent values in the window
+     * @param comp    the Comparator that defines the total order on T
+     * @return        an empty SlidingWindowSelector
+     * @throws        IllegalArgumentException as per above
+     */
+    public static <T> SlidingWindowSelector<T> window(int size, Comparator<T> comp) {
+        if (size < 1 || comp == null) {
+            throw new IllegalArgumentException("Window must have a positive size and a comparator.");
+        }
+        return new SlidingWindowSelector<T>(size, comp);
+    }
+
+
+    /**
+     * Returns an empty QuantileSketch that estimates order statistics as
+     * defined by the Comparator comp, with ranks accurate to within epsilon
+     * times the number of values. If comp is null or epsilon is not between
+     * 0 and 1, this method throws an IllegalArgumentException.
+     *
+     * @param comp      the Comparator that defines the total order on T
+     * @param epsilon   the normalized rank error bound
+     * @return          an empty QuantileSketch
+     * @throws          IllegalArgumentException as per above
+     */
+    public static <T> QuantileSketch<T> sketch(Comparator<T> comp, double epsilon) {
+        if (comp == null || !(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Sketch must have a comparator and an error bound in (0, 1).");
+        }
+        return new QuantileSketch<T>(comp, epsilon);
+    }
+
+
+    /**
+     * Returns a QuantileSketch of the values in the Collection coll, as
+     * sketch(comp, epsilon) with every value of coll added. If coll or comp
+     * is null, coll holds a null value, or epsilon is not between 0 and 1,
+     * this method throws an IllegalArgumentException. This method will not
+     * change coll in any way.
+     *
+     * @param coll      the Collection to summarize
+     * @param comp      the Comparator that defines the total order on T
+     * @param epsilon   the normalized rank error bound
+     * @return          a QuantileSketch of coll
+     * @throws          IllegalArgumentException as per above
+     */
+    public static <T> QuantileSketch<T> sketch(Collection<T> c, Comparator<T> comp, double epsilon) {
+        if (c == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        QuantileSketch<T> sketch = sketch(comp, epsilon);
+        for (T x : c) {
+            sketch.update(x);
+        }
+        return sketch;
+    }
+
+
     /**
      * Returns the minimum value in the Collection coll as defined by the
      * Comparator comp. If either coll or comp is null, this method throws an
@@ -42,6 +143,11 @@ public final class Selector {
             throw new NoSuchElementException("Collection must have elements");
         }
 
+        SortedSet<T> sorted = SortedViews.sorted(c, comp);
+        if (sorted != null) {
+            return sorted.first();
+        }
+
         Iterator<T> itr = c.iterator();
         T min = itr.next();
 
@@ -76,6 +182,11 @@ public final class Selector {
             throw new NoSuchElementException("Collection must have elements");
         }
 
+        SortedSet<T> sorted = SortedViews.sorted(c, comp);
+        if (sorted != null) {
+            return sorted.last();
+        }
+
         Iterator<T> itr = c.iterator();
         T max = itr.next();
 
@@ -113,37 +224,10 @@ public final class Selector {
         if (k < 1 || k > c.size()) {
             throw new NoSuchElementException("K is not valid");
         }
-
-        ArrayList<T> copyRay = new ArrayList<T>();
-        Iterator<T> itr = c.iterator();
-        while (itr.hasNext()) {
-            copyRay.add(itr.next());
-        }
-        java.util.Collections.sort(copyRay, comp);
-
-        if (k == 1) {
-            return copyRay.get(0);
+        if (k <= CollectionSelect.HEAP_LIMIT) {
+            return CollectionSelect.heapSelect(c, k, comp, false);
         }
-
-        T x = copyRay.get(0);
-        T kmin = null;
-        int count = 1;
-
-        for (int i = 1; i < copyRay.size(); i++) {
-            if (!copyRay.get(i).equals(x)) {
-                count++;
-                if (k == count) {
-                    kmin = copyRay.get(i);
-                }
-            }
-            x = copyRay.get(i);
-        }
-
-        if (count < k) {
-            throw new NoSuchElementException(k + "th min is not valid.");
-        }
-        return kmin;
-
+        return CollectionSelect.quickSelect(c, k, comp, false);
     }
 
 
@@ -172,37 +256,10 @@ public final class Selector {
         if (k < 1 || k > c.size()) {
             throw new NoSuchElementException("K is not valid");
         }
-
-        ArrayList<T> copyRay = new ArrayList<T>();
-        Iterator<T> itr = c.iterator();
-        while (itr.hasNext()) {
-            copyRay.add(itr.next());
-        }
-        java.util.Collections.sort(copyRay, comp);
-
-        if (k == 1) {
-            return copyRay.get(copyRay.size()-1);
-        }
-
-        T x = copyRay.get(copyRay.size()-1);
-        T kmax = null;
-        int count = 1;
-
-        for (int i = copyRay.size()-1; i >= 0; i--) {
-            if (!copyRay.get(i).equals(x)) {
-                count++;
-                if (k == count) {
-                    kmax = copyRay.get(i);
-                }
-            }
-            x = copyRay.get(i);
-        }
-
-        if (count < k) {
-            throw new NoSuchElementException(k + "th max is not valid.");
+        if (k <= CollectionSelect.HEAP_LIMIT) {
+            return CollectionSelect.heapSelect(c, k, comp, true);
         }
-        return kmax;
-
+        return CollectionSelect.quickSelect(c, k, comp, true);
     }
 
 
@@ -234,6 +291,18 @@ public final class Selector {
             throw new NoSuchElementException("Collection must have elements");
         }
 
+        NavigableSet<T> set = SortedViews.navigable(c, comp);
+        if (set != null) {
+            if (comp.compare(low, high) <= 0) {
+                NavigableSet<T> sub = set.subSet(low, true, high, true);
+                if (!sub.isEmpty()) {
+                    // Keep the set's own iteration order when set is its descending view.
+                    return new ArrayList<T>(set == c ? sub : sub.descendingSet());
+                }
+            }
+            throw new NoSuchElementException("None of the values are within the specified range");
+        }
+
         ArrayList<T> result = new ArrayList<T>();
         Iterator<T> itr = c.iterator();
 
@@ -250,6 +319,43 @@ public final class Selector {
     }
 
 
+    /**
+     * Returns a lazy Stream of the values in the Collection coll that are
+     * greater than or equal to low and less than or equal to high, as defined
+     * by the Comparator comp, in the same order as range would return them.
+     * Nothing is copied: comp is only called as the stream is consumed, so
+     * short-circuiting operations such as limit and findFirst stop the scan
+     * early. Unlike range, an empty coll or a range with no values gives an
+     * empty stream rather than a NoSuchElementException. If either coll or
+     * comp is null, this method throws an IllegalArgumentException. The
+     * stream reads coll as it is consumed, so coll must not be changed until
+     * the stream is done. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the range values are selected
+     * @param low     the lower bound of the range
+     * @param high    the upper bound of the range
+     * @param comp    the Comparator that defines the total order on T
+     * @return        a Stream of values between low and high
+     * @throws        IllegalArgumentException as per above
+     */
+    public static <T> Stream<T> rangeStream(Collection<T> c, T low, T high, Comparator<T> comp) {
+        if (c == null || comp == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+
+        NavigableSet<T> set = SortedViews.navigable(c, comp);
+        if (set != null) {
+            if (c.isEmpty() || comp.compare(low, high) > 0) {
+                return Stream.empty();
+            }
+            NavigableSet<T> sub = set.subSet(low, true, high, true);
+            return (set == c ? sub : sub.descendingSet()).stream();
+        }
+
+        return c.stream().filter(x -> (comp.compare(x,low) >= 0) && (comp.compare(x,high) <= 0));
+    }
+
+
     /**
      * Returns the smallest value in the Collection coll that is greater than
      * or equal to key, as defined by the Comparator comp. The value of key
@@ -273,26 +379,78 @@ public final class Selector {
             throw new NoSuchElementException("Collection must have elements");
         }
 
-        T min = null;
-        Iterator<T> itr = c.iterator();
-        boolean hasFound = false;
-
-        while(itr.hasNext()) {
-            T x = itr.next();
-            if ((comp.compare(x, key) >= 0) && !(hasFound)) {
-                min = x;
-                hasFound = true;
-            }
-            else if ((comp.compare(x, key) >= 0) && (comp.compare(x,min) < 0)) {
-                min = x;
+        NavigableSet<T> set = SortedViews.navigable(c, comp);
+        if (set != null) {
+            T ceiling = set.ceiling(key);
+            if (ceiling == null) {
+                throw new NoSuchElementException("No value");
             }
+            return ceiling;
         }
-        if (min == null) {
-            throw new NoSuchElementException("No value");
+
+        Bounds<T> bounds = BoundsScan.scan(c, key, comp, true, false, null, "ceiling");
+        return bounds.ceiling();
+    }
+
+    /**
+     * Returns both the ceiling and the floor of key in the Collection coll,
+     * as defined by the Comparator comp, found in a single pass. This calls
+     * comp at most twice per value, where separate ceiling and floor calls
+     * make up to three calls per value each. If coll or comp is null, this
+     * method throws an IllegalArgumentException. If coll is empty, this
+     * method throws a NoSuchElementException; a missing ceiling or floor is
+     * reported by the returned Bounds instead. This method will not change
+     * coll in any way.
+     *
+     * @param coll    the Collection from which the values are selected
+     * @param key     the reference value
+     * @param comp    the Comparator that defines the total order on T
+     * @return        the ceiling and floor values of key in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> Bounds<T> ceilingAndFloor(Collection<T> c, T key, Comparator<T> comp) {
+        return ceilingAndFloor(c, key, comp, null);
+    }
+
+
+    /**
+     * Returns both the ceiling and the floor of key in the Collection coll,
+     * as ceilingAndFloor(coll, key, comp) does, and reports the number of
+     * comparator calls it made to metrics if metrics is not null. When coll
+     * is a NavigableSet kept in comp's order the answer comes from the set
+     * itself, whose own comparator calls are not counted.
+     *
+     * @param coll    the Collection from which the values are selected
+     * @param key     the reference value
+     * @param comp    the Comparator that defines the total order on T
+     * @param metrics the receiver of comparator counts, or null
+     * @return        the ceiling and floor values of key in coll
+     * @throws        IllegalArgumentException as per ceilingAndFloor(coll, key, comp)
+     * @throws        NoSuchElementException as per ceilingAndFloor(coll, key, comp)
+     */
+    public static <T> Bounds<T> ceilingAndFloor(Collection<T> c, T key, Comparator<T> comp,
+                                                SelectorMetrics metrics) {
+        if (c == null || comp == null) {
+            throw new IllegalArgumentException("Array must have elements.");
         }
-        return min;
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+
+        NavigableSet<T> set = SortedViews.navigable(c, comp);
+        if (set != null) {
+            T ceiling = set.ceiling(key);
+            T floor = set.floor(key);
+            if (metrics != null) {
+                metrics.comparisons("ceilingAndFloor", 0);
+            }
+            return new Bounds<T>(ceiling, ceiling != null, floor, floor != null);
+        }
+        return BoundsScan.scan(c, key, comp, true, true, metrics, "ceilingAndFloor");
     }
 
+
     /**
      * Returns the largest value in the Collection coll that is less than
      * or equal to key, as defined by the Comparator comp. The value of key
@@ -316,24 +474,515 @@ public final class Selector {
             throw new NoSuchElementException("Collection must have elements");
         }
 
-        T max = null;
-        Iterator<T> itr = c.iterator();
-        boolean hasFound = false;
-
-        while(itr.hasNext()) {
-            T x = itr.next();
-            if ((comp.compare(x, key) <= 0) && !(hasFound)) {
-                max = x;
-                hasFound = true;
-            }
-            else if ((comp.compare(x, key) <= 0) && (comp.compare(x,max) > 0)) {
-                max = x;
+        NavigableSet<T> set = SortedViews.navigable(c, comp);
+        if (set != null) {
+            T floor = set.floor(key);
+            if (floor == null) {
+                throw new NoSuchElementException("No value");
             }
+            return floor;
         }
-        if (max == null) {
-            throw new NoSuchElementException("No value");
+
+        Bounds<T> bounds = BoundsScan.scan(c, key, comp, false, true, null, "floor");
+        return bounds.floor();
+    }
+
+
+    /**
+     * Returns the minimum value in the Collection coll by the long key that
+     * key extracts from each value, as min(coll, Comparator.comparingLong(key))
+     * but calling key only once per value and never boxing the keys. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the minimum is selected
+     * @param key     the function that extracts the key of each value
+     * @return        the minimum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T minByLong(Collection<T> c, ToLongFunction<? super T> key) {
+        if (c == null || key == null) {
+            throw new IllegalArgumentException("Array must have elements.");
         }
-        return max;
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        return KeyedSelect.best(c, key, false);
+    }
+
+
+    /**
+     * Returns the maximum value in the Collection coll by the long key that
+     * key extracts from each value, as max(coll, Comparator.comparingLong(key))
+     * but calling key only once per value and never boxing the keys. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the maximum is selected
+     * @param key     the function that extracts the key of each value
+     * @return        the maximum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T maxByLong(Collection<T> c, ToLongFunction<? super T> key) {
+        if (c == null || key == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        return KeyedSelect.best(c, key, true);
+    }
+
+
+    /**
+     * Selects the kth minimum value from the Collection coll by the long key
+     * that key extracts from each value, as
+     * kmin(coll, k, Comparator.comparingLong(key)) but calling key only once per
+     * value and comparing the keys as primitives. If either coll or
+     * key is null, this method throws an IllegalArgumentException. If coll is
+     * empty or if there is no kth minimum value, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the kth minimum is selected
+     * @param k       the k-selection value
+     * @param key     the function that extracts the key of each value
+     * @return        the kth minimum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T kminByLong(Collection<T> c, int k, ToLongFunction<? super T> key) {
+        if (c == null || key == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        if (k < 1 || k > c.size()) {
+            throw new NoSuchElementException("K is not valid");
+        }
+        return KeyedSelect.select(c, k, key, false);
+    }
+
+
+    /**
+     * Selects the kth maximum value from the Collection coll by the long key
+     * that key extracts from each value, as
+     * kmax(coll, k, Comparator.comparingLong(key)) but calling key only once per
+     * value and comparing the keys as primitives. If either coll or
+     * key is null, this method throws an IllegalArgumentException. If coll is
+     * empty or if there is no kth maximum value, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the kth maximum is selected
+     * @param k       the k-selection value
+     * @param key     the function that extracts the key of each value
+     * @return        the kth maximum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T kmaxByLong(Collection<T> c, int k, ToLongFunction<? super T> key) {
+        if (c == null || key == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        if (k < 1 || k > c.size()) {
+            throw new NoSuchElementException("K is not valid");
+        }
+        return KeyedSelect.select(c, k, key, true);
+    }
+
+
+    /**
+     * Returns a new Collection containing all the values in the Collection
+     * coll whose long key, as extracted by key, is greater than or equal to
+     * low and less than or equal to high, in the order coll hands them out.
+     * This is range with Comparator.comparingLong(key), but calls key only once
+     * per value. If either coll or key is null, this method throws an
+     * IllegalArgumentException. If no values in coll fall into the specified
+     * range or if coll is empty, this method throws a NoSuchElementException.
+     * This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the range values are selected
+     * @param low     the lower bound of the range of keys
+     * @param high    the upper bound of the range of keys
+     * @param key     the function that extracts the key of each value
+     * @return        a Collection of values with keys between low and high
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> Collection<T> rangeByLong(Collection<T> c, long low, long high,
+                                               ToLongFunction<? super T> key) {
+        if (c == null || key == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        return KeyedSelect.range(c, low, high, key);
+    }
+
+
+    /**
+     * Returns the smallest value in the Collection coll whose long key, as
+     * extracted by key, is greater than or equal to bound. This is ceiling with
+     * Comparator.comparingLong(key), but calls key only once per value. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty or if there is no qualifying
+     * value, this method throws a NoSuchElementException. This method will
+     * not change coll in any way.
+     *
+     * @param coll    the Collection from which the ceiling value is selected
+     * @param bound   the reference key
+     * @param key     the function that extracts the key of each value
+     * @return        the ceiling value of bound in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T ceilingByLong(Collection<T> c, long bound, ToLongFunction<? super T> key) {
+        if (c == null || key == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        return KeyedSelect.bound(c, bound, key, false);
+    }
+
+
+    /**
+     * Returns the largest value in the Collection coll whose long key, as
+     * extracted by key, is less than or equal to bound. This is floor with
+     * Comparator.comparingLong(key), but calls key only once per value. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty or if there is no qualifying
+     * value, this method throws a NoSuchElementException. This method will
+     * not change coll in any way.
+     *
+     * @param coll    the Collection from which the floor value is selected
+     * @param bound   the reference key
+     * @param key     the function that extracts the key of each value
+     * @return        the floor value of bound in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T floorByLong(Collection<T> c, long bound, ToLongFunction<? super T> key) {
+        if (c == null || key == null) {
+            throw new IllegalArgumentException("Array must have elements.");
+        }
+        if (c.isEmpty()) {
+            throw new NoSuchElementException("Collection must have elements");
+        }
+        return KeyedSelect.bound(c, bound, key, true);
+    }
+
+
+    /**
+     * Returns the minimum value in the Collection coll by the double key that
+     * key extracts from each value, as min(coll, Comparator.comparingDouble(key))
+     * but calling key only once per value and never boxing the keys. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the minimum is selected
+     * @param key     the function that extracts the key of each value
+     * @return        the minimum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T minByDouble(Collection<T> c, ToDoubleFunction<? super T> key) {
+        return minByLong(c, doubleKey(key));
+    }
+
+
+    /**
+     * Returns the maximum value in the Collection coll by the double key that
+     * key extracts from each value, as max(coll, Comparator.comparingDouble(key))
+     * but calling key only once per value and never boxing the keys. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the maximum is selected
+     * @param key     the function that extracts the key of each value
+     * @return        the maximum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T maxByDouble(Collection<T> c, ToDoubleFunction<? super T> key) {
+        return maxByLong(c, doubleKey(key));
+    }
+
+
+    /**
+     * Selects the kth minimum value from the Collection coll by the double key
+     * that key extracts from each value, as
+     * kmin(coll, k, Comparator.comparingDouble(key)) but calling key only once per
+     * value and comparing the keys as primitives. If either coll or
+     * key is null, this method throws an IllegalArgumentException. If coll is
+     * empty or if there is no kth minimum value, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the kth minimum is selected
+     * @param k       the k-selection value
+     * @param key     the function that extracts the key of each value
+     * @return        the kth minimum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T kminByDouble(Collection<T> c, int k, ToDoubleFunction<? super T> key) {
+        return kminByLong(c, k, doubleKey(key));
+    }
+
+
+    /**
+     * Selects the kth maximum value from the Collection coll by the double key
+     * that key extracts from each value, as
+     * kmax(coll, k, Comparator.comparingDouble(key)) but calling key only once per
+     * value and comparing the keys as primitives. If either coll or
+     * key is null, this method throws an IllegalArgumentException. If coll is
+     * empty or if there is no kth maximum value, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the kth maximum is selected
+     * @param k       the k-selection value
+     * @param key     the function that extracts the key of each value
+     * @return        the kth maximum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T kmaxByDouble(Collection<T> c, int k, ToDoubleFunction<? super T> key) {
+        return kmaxByLong(c, k, doubleKey(key));
+    }
+
+
+    /**
+     * Returns a new Collection containing all the values in the Collection
+     * coll whose double key, as extracted by key, is greater than or equal to
+     * low and less than or equal to high, in the order coll hands them out.
+     * This is range with Comparator.comparingDouble(key), but calls key only once
+     * per value. If either coll or key is null, this method throws an
+     * IllegalArgumentException. If no values in coll fall into the specified
+     * range or if coll is empty, this method throws a NoSuchElementException.
+     * This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the range values are selected
+     * @param low     the lower bound of the range of keys
+     * @param high    the upper bound of the range of keys
+     * @param key     the function that extracts the key of each value
+     * @return        a Collection of values with keys between low and high
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> Collection<T> rangeByDouble(Collection<T> c, double low, double high,
+                                               ToDoubleFunction<? super T> key) {
+        return rangeByLong(c, KeyedSelect.order(low), KeyedSelect.order(high), doubleKey(key));
+    }
+
+
+    /**
+     * Returns the smallest value in the Collection coll whose double key, as
+     * extracted by key, is greater than or equal to bound. This is ceiling with
+     * Comparator.comparingDouble(key), but calls key only once per value. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty or if there is no qualifying
+     * value, this method throws a NoSuchElementException. This method will
+     * not change coll in any way.
+     *
+     * @param coll    the Collection from which the ceiling value is selected
+     * @param bound   the reference key
+     * @param key     the function that extracts the key of each value
+     * @return        the ceiling value of bound in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T ceilingByDouble(Collection<T> c, double bound, ToDoubleFunction<? super T> key) {
+        return ceilingByLong(c, KeyedSelect.order(bound), doubleKey(key));
+    }
+
+
+    /**
+     * Returns the largest value in the Collection coll whose double key, as
+     * extracted by key, is less than or equal to bound. This is floor with
+     * Comparator.comparingDouble(key), but calls key only once per value. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty or if there is no qualifying
+     * value, this method throws a NoSuchElementException. This method will
+     * not change coll in any way.
+     *
+     * @param coll    the Collection from which the floor value is selected
+     * @param bound   the reference key
+     * @param key     the function that extracts the key of each value
+     * @return        the floor value of bound in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T floorByDouble(Collection<T> c, double bound, ToDoubleFunction<? super T> key) {
+        return floorByLong(c, KeyedSelect.order(bound), doubleKey(key));
+    }
+
+
+    /**
+     * Returns the minimum value in the Collection coll by the int key that
+     * key extracts from each value, as min(coll, Comparator.comparingInt(key))
+     * but calling key only once per value and never boxing the keys. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the minimum is selected
+     * @param key     the function that extracts the key of each value
+     * @return        the minimum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T minByInt(Collection<T> c, ToIntFunction<? super T> key) {
+        return minByLong(c, intKey(key));
+    }
+
+
+    /**
+     * Returns the maximum value in the Collection coll by the int key that
+     * key extracts from each value, as max(coll, Comparator.comparingInt(key))
+     * but calling key only once per value and never boxing the keys. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the maximum is selected
+     * @param key     the function that extracts the key of each value
+     * @return        the maximum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T maxByInt(Collection<T> c, ToIntFunction<? super T> key) {
+        return maxByLong(c, intKey(key));
+    }
+
+
+    /**
+     * Selects the kth minimum value from the Collection coll by the int key
+     * that key extracts from each value, as
+     * kmin(coll, k, Comparator.comparingInt(key)) but calling key only once per
+     * value and comparing the keys as primitives. If either coll or
+     * key is null, this method throws an IllegalArgumentException. If coll is
+     * empty or if there is no kth minimum value, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the kth minimum is selected
+     * @param k       the k-selection value
+     * @param key     the function that extracts the key of each value
+     * @return        the kth minimum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T kminByInt(Collection<T> c, int k, ToIntFunction<? super T> key) {
+        return kminByLong(c, k, intKey(key));
+    }
+
+
+    /**
+     * Selects the kth maximum value from the Collection coll by the int key
+     * that key extracts from each value, as
+     * kmax(coll, k, Comparator.comparingInt(key)) but calling key only once per
+     * value and comparing the keys as primitives. If either coll or
+     * key is null, this method throws an IllegalArgumentException. If coll is
+     * empty or if there is no kth maximum value, this method throws a
+     * NoSuchElementException. This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the kth maximum is selected
+     * @param k       the k-selection value
+     * @param key     the function that extracts the key of each value
+     * @return        the kth maximum value in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T kmaxByInt(Collection<T> c, int k, ToIntFunction<? super T> key) {
+        return kmaxByLong(c, k, intKey(key));
+    }
+
+
+    /**
+     * Returns a new Collection containing all the values in the Collection
+     * coll whose int key, as extracted by key, is greater than or equal to
+     * low and less than or equal to high, in the order coll hands them out.
+     * This is range with Comparator.comparingInt(key), but calls key only once
+     * per value. If either coll or key is null, this method throws an
+     * IllegalArgumentException. If no values in coll fall into the specified
+     * range or if coll is empty, this method throws a NoSuchElementException.
+     * This method will not change coll in any way.
+     *
+     * @param coll    the Collection from which the range values are selected
+     * @param low     the lower bound of the range of keys
+     * @param high    the upper bound of the range of keys
+     * @param key     the function that extracts the key of each value
+     * @return        a Collection of values with keys between low and high
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> Collection<T> rangeByInt(Collection<T> c, int low, int high,
+                                               ToIntFunction<? super T> key) {
+        return rangeByLong(c, low, high, intKey(key));
+    }
+
+
+    /**
+     * Returns the smallest value in the Collection coll whose int key, as
+     * extracted by key, is greater than or equal to bound. This is ceiling with
+     * Comparator.comparingInt(key), but calls key only once per value. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty or if there is no qualifying
+     * value, this method throws a NoSuchElementException. This method will
+     * not change coll in any way.
+     *
+     * @param coll    the Collection from which the ceiling value is selected
+     * @param bound   the reference key
+     * @param key     the function that extracts the key of each value
+     * @return        the ceiling value of bound in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T ceilingByInt(Collection<T> c, int bound, ToIntFunction<? super T> key) {
+        return ceilingByLong(c, bound, intKey(key));
+    }
+
+
+    /**
+     * Returns the largest value in the Collection coll whose int key, as
+     * extracted by key, is less than or equal to bound. This is floor with
+     * Comparator.comparingInt(key), but calls key only once per value. If
+     * either coll or key is null, this method throws an
+     * IllegalArgumentException. If coll is empty or if there is no qualifying
+     * value, this method throws a NoSuchElementException. This method will
+     * not change coll in any way.
+     *
+     * @param coll    the Collection from which the floor value is selected
+     * @param bound   the reference key
+     * @param key     the function that extracts the key of each value
+     * @return        the floor value of bound in coll
+     * @throws        IllegalArgumentException as per above
+     * @throws        NoSuchElementException as per above
+     */
+    public static <T> T floorByInt(Collection<T> c, int bound, ToIntFunction<? super T> key) {
+        return floorByLong(c, bound, intKey(key));
+    }
+
+
+    /** Returns key as a long key, or null if key is null. */
+    private static <T> ToLongFunction<T> doubleKey(ToDoubleFunction<? super T> key) {
+        return key == null ? null : KeyedSelect.ofDouble(key);
+    }
+
+
+    /** Returns key as a long key, or null if key is null. */
+    private static <T> ToLongFunction<T> intKey(ToIntFunction<? super T> key) {
+        return key == null ? null : KeyedSelect.ofInt(key);
     }
 
 }
@@ -0,0 +1,19 @@
+/**
+ * Receives counts of comparator invocations made by Selector methods
+ * that accept one. Implementations can log the counts, add them to a
+ * histogram, or assert on them in tests.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+public interface SelectorMetrics {
+
+    /**
+     * Called once per Selector call with the number of times the
+     * comparator was invoked.
+     *
+     * @param operation   the name of the Selector method
+     * @param count       the number of comparator invocations
+     */
+    void comparisons(String operation, long count);
+}
@@ -0,0 +1,400 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Answers Selector queries over the most recent values of a stream, for
+ * rolling statistics over the last N samples. Instances are obtained from
+ * Selector.window.
+ * <p>
+ * Values are added one at a time with add; once the window is full, each
+ * new value pushes out the oldest one. min and max are read from
+ * monotonic deques of window positions, which makes add amortized O(1)
+ * for them and each query O(1). kmin and kmax are read from a treap of
+ * the distinct values in the window, augmented with subtree sizes, which
+ * makes add and each query expected O(log N).
+ * <p>
+ * Each query returns the value the Selector method of the same name
+ * would return for a list of the values in the window, oldest first: ties
+ * in min and max go to the oldest value, and a run of equal values is
+ * represented by its oldest value for kmin and its newest for kmax. Two
+ * values count as the same distinct value when comp says they are equal,
+ * which agrees with Selector whenever comp is consistent with equals.
+ * <p>
+ * Windows are not thread safe.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+public final class SlidingWindowSelector<T> {
+
+    private final Comparator<T> comp;
+
+    /** The window, as a ring indexed by sequence number modulo its length. */
+    private final Object[] window;
+
+    /** The sequence number of the next value to be added. */
+    private long next;
+
+    /** Window positions whose values increase strictly from front to back. */
+    private final LongRing minQueue;
+
+    /** Window positions whose values decrease strictly from front to back. */
+    private final LongRing maxQueue;
+
+    /** The distinct values in the window, ordered by comp. */
+    private Node<T> root;
+
+    /** State of the generator for treap priorities. */
+    private int seed = 0x2545F491;
+
+
+    SlidingWindowSelector(int size, Comparator<T> comp) {
+        this.comp = comp;
+        this.window = new Object[size];
+        this.minQueue = new LongRing(size);
+        this.maxQueue = new LongRing(size);
+    }
+
+
+    /**
+     * Adds a value to the window, pushing out the oldest value if the
+     * window is full. If x is null, this method throws an
+     * IllegalArgumentException.
+     *
+     * @param x   the value to add
+     * @throws    IllegalArgumentException as per above
+     */
+    public void add(T x) {
+        if (x == null) {
+            throw new IllegalArgumentException("Window values must not be null.");
+        }
+        if (next >= window.length) {
+            evict(next - window.length);
+        }
+        long seq = next++;
+        window[slot(seq)] = x;
+
+        // Equal values stay behind older ones so the oldest wins a tie.
+        while (!minQueue.isEmpty() && comp.compare(value(minQueue.last()), x) > 0) {
+            minQueue.removeLast();
+        }
+        minQueue.addLast(seq);
+        while (!maxQueue.isEmpty() && comp.compare(value(maxQueue.last()), x) < 0) {
+            maxQueue.removeLast();
+        }
+        maxQueue.addLast(seq);
+
+        root = insert(root, x);
+    }
+
+
+    /**
+     * Returns the number of values in the window.
+     *
+     * @return  the number of values, at most capacity()
+     */
+    public int size() {
+        return (int) Math.min(next, window.length);
+    }
+
+
+    /**
+     * Returns the largest number of values the window holds.
+     *
+     * @return  the window length
+     */
+    public int capacity() {
+        return window.length;
+    }
+
+
+    /**
+     * Returns the number of distinct values in the window, which is the
+     * largest k for which kmin and kmax have an answer.
+     *
+     * @return  the number of distinct values
+     */
+    public int distinctCount() {
+        return size(root);
+    }
+
+
+    /**
+     * Returns the minimum value in the window, as Selector.min. If the
+     * window is empty, this method throws a NoSuchElementException.
+     *
+     * @return  the minimum value
+     * @throws  NoSuchElementException as per above
+     */
+    public T min() {
+        checkNotEmpty();
+        return value(minQueue.first());
+    }
+
+
+    /**
+     * Returns the maximum value in the window, as Selector.max. If the
+     * window is empty, this method throws a NoSuchElementException.
+     *
+     * @return  the maximum value
+     * @throws  NoSuchElementException as per above
+     */
+    public T max() {
+        checkNotEmpty();
+        return value(maxQueue.first());
+    }
+
+
+    /**
+     * Selects the kth minimum value in the window, as Selector.kmin. If
+     * the window is empty or if there is no kth minimum value, this method
+     * throws a NoSuchElementException.
+     *
+     * @param k   the k-selection value
+     * @return    the kth minimum value
+     * @throws    NoSuchElementException as per above
+     */
+    public T kmin(int k) {
+        checkNotEmpty();
+        if (k < 1 || k > size(root)) {
+            throw new NoSuchElementException(k + "th min is not valid.");
+        }
+        return select(k - 1).values.peekFirst();
+    }
+
+
+    /**
+     * Selects the kth maximum value in the window, as Selector.kmax. If
+     * the window is empty or if there is no kth maximum value, this method
+     * throws a NoSuchElementException.
+     *
+     * @param k   the k-selection value
+     * @return    the kth maximum value
+     * @throws    NoSuchElementException as per above
+     */
+    public T kmax(int k) {
+        checkNotEmpty();
+        int d = size(root);
+        if (k < 1 || k > d) {
+            throw new NoSuchElementException(k + "th max is not valid.");
+        }
+        return select(d - k).values.peekLast();
+    }
+
+
+    /**
+     * Removes the value with the given sequence number, which is the
+     * oldest in the window, from every structure.
+     */
+    private void evict(long seq) {
+        T old = value(seq);
+        if (minQueue.first() == seq) {
+            minQueue.removeFirst();
+        }
+        if (maxQueue.first() == seq) {
+            maxQueue.removeFirst();
+        }
+        root = remove(root, old);
+        window[slot(seq)] = null;
+    }
+
+
+    private int slot(long seq) {
+        return (int) (seq % window.length);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private T value(long seq) {
+        return (T) window[slot(seq)];
+    }
+
+
+    private void checkNotEmpty() {
+        if (next == 0) {
+            throw new NoSuchElementException("Window must have elements");
+        }
+    }
+
+
+    // Treap of distinct values. Each node keeps the window's values that
+    // compare equal to it, oldest first; since values leave the window in
+    // the order they arrived, they always leave from the front.
+
+    private Node<T> insert(Node<T> t, T x) {
+        if (t == null) {
+            return new Node<T>(x, nextPriority());
+        }
+        int cmp = comp.compare(x, t.values.peekFirst());
+        if (cmp == 0) {
+            t.values.addLast(x);
+            return t;
+        }
+        if (cmp < 0) {
+            t.left = insert(t.left, x);
+            if (t.left.priority > t.priority) {
+                t = rotateRight(t);
+            }
+        }
+        else {
+            t.right = insert(t.right, x);
+            if (t.right.priority > t.priority) {
+                t = rotateLeft(t);
+            }
+        }
+        t.update();
+        return t;
+    }
+
+
+    private Node<T> remove(Node<T> t, T x) {
+        int cmp = comp.compare(x, t.values.peekFirst());
+        if (cmp < 0) {
+            t.left = remove(t.left, x);
+        }
+        else if (cmp > 0) {
+            t.right = remove(t.right, x);
+        }
+        else {
+            t.values.removeFirst();
+            if (!t.values.isEmpty()) {
+                return t;
+            }
+            return join(t.left, t.right);
+        }
+        t.update();
+        return t;
+    }
+
+
+    /** Joins two treaps whose values are all ordered left before right. */
+    private Node<T> join(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = join(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = join(left, right.left);
+        right.update();
+        return right;
+    }
+
+
+    /** Returns the node of the given zero-based rank. */
+    private Node<T> select(int rank) {
+        Node<T> t = root;
+        while (true) {
+            int s = size(t.left);
+            if (rank < s) {
+                t = t.left;
+            }
+            else if (rank > s) {
+                rank -= s + 1;
+                t = t.right;
+            }
+            else {
+                return t;
+            }
+        }
+    }
+
+
+    private static <T> Node<T> rotateRight(Node<T> t) {
+        Node<T> l = t.left;
+        t.left = l.right;
+        t.update();
+        l.right = t;
+        return l;
+    }
+
+
+    private static <T> Node<T> rotateLeft(Node<T> t) {
+        Node<T> r = t.right;
+        t.right = r.left;
+        t.update();
+        r.left = t;
+        return r;
+    }
+
+
+    private static int size(Node<?> t) {
+        return t == null ? 0 : t.size;
+    }
+
+
+    private int nextPriority() {
+        // xorshift32
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+
+    /**
+     * A treap node: one distinct value with its occurrences in the window.
+     */
+    private static final class Node<T> {
+        final ArrayDeque<T> values = new ArrayDeque<T>(2);
+        final int priority;
+        Node<T> left;
+        Node<T> right;
+        int size = 1;
+
+        Node(T x, int priority) {
+            values.addLast(x);
+            this.priority = priority;
+        }
+
+        void update() {
+            size = 1 + SlidingWindowSelector.size(left) + SlidingWindowSelector.size(right);
+        }
+    }
+
+
+    /**
+     * A fixed-capacity deque of sequence numbers.
+     */
+    private static final class LongRing {
+        private final long[] items;
+        private int head;
+        private int count;
+
+        LongRing(int capacity) {
+            items = new long[capacity];
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        long first() {
+            return items[head];
+        }
+
+        long last() {
+            return items[(head + count - 1) % items.length];
+        }
+
+        void addLast(long x) {
+            items[(head + count) % items.length] = x;
+            count++;
+        }
+
+        void removeFirst() {
+            head = (head + 1) % items.length;
+            count--;
+        }
+
+        void removeLast() {
+            count--;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+
+/**
+ * Detects collections that are already kept in the order a Selector
+ * query asks for, so the query can use the collection's own O(log n)
+ * operations instead of scanning it.
+ * <p>
+ * A SortedSet qualifies when its comparator is the one given to the
+ * query, or equals it; a set in natural order qualifies for
+ * Comparator.naturalOrder(). A NavigableSet also qualifies for the
+ * reverse of its comparator, through its descending view. Anything else,
+ * including comparators that happen to order the same way but are not
+ * equal, falls back to the linear scan.
+ *
+ * @author  John Welch (jdw0156@auburn.edu)
+ *
+ */
+final class SortedViews {
+
+    /**
+     * Can't instantiate this class.
+     */
+    private SortedViews() { }
+
+
+    /**
+     * Returns c as a NavigableSet ordered by comp, either c itself or its
+     * descending view, or null if c is not a NavigableSet kept in comp's
+     * order or its reverse.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> NavigableSet<T> navigable(Collection<T> c, Comparator<T> comp) {
+        if (!(c instanceof NavigableSet)) {
+            return null;
+        }
+        NavigableSet<T> set = (NavigableSet<T>) c;
+        if (sameOrder(set.comparator(), comp)) {
+            return set;
+        }
+        if (comp.equals(Collections.reverseOrder(set.comparator()))) {
+            return set.descendingSet();
+        }
+        return null;
+    }
+
+
+    /**
+     * Returns c as a SortedSet ordered by comp, or null if c is not kept
+     * in comp's order.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SortedSet<T> sorted(Collection<T> c, Comparator<T> comp) {
+        NavigableSet<T> set = navigable(c, comp);
+        if (set != null) {
+            return set;
+        }
+        if (c instanceof SortedSet && sameOrder(((SortedSet<T>) c).comparator(), comp)) {
+            return (SortedSet<T>) c;
+        }
+        return null;
+    }
+
+
+    private static boolean sameOrder(Comparator<?> setOrder, Comparator<?> comp) {
+        if (setOrder == null) {
+            return comp.equals(Comparator.naturalOrder());
+        }
+        return setOrder == comp || setOrder.equals(comp);
+    }
+}
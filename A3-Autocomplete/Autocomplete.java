@@ -10,16 +10,47 @@ public class Autocomplete {
 
     private Term[] termArray;
 
+    /** Range-maximum index over the weights of termArray, for topMatches, or null if tree is used. */
+    private RangeMaxIndex weightIndex;
+
+    /** Ternary search tree over termArray, for topMatches, or null if weightIndex is used. */
+    private TernarySearchTree tree;
+
     /**
      * Initializes a data structure from the given array of terms.
      * This method throws a NullPointerException if terms is null.
      */
     public Autocomplete(Term[] terms) {
+        this(terms, false);
+    }
+
+    /**
+     * Returns a data structure over the given array of terms that answers
+     * topMatches from a TernarySearchTree instead of the range-maximum index
+     * over the sorted array. Results are the same, in the same order.
+     * This method throws a NullPointerException if terms is null.
+     */
+    public static Autocomplete usingTree(Term[] terms) {
+        return new Autocomplete(terms, true);
+    }
+
+    private Autocomplete(Term[] terms, boolean useTree) {
         if (terms == null) {
             throw new NullPointerException("Terms cannot be null");
         }
         Arrays.sort(terms);
         termArray = terms;
+
+        if (useTree) {
+            // The tree sorts its own copy the same way, so its indices match termArray.
+            tree = new TernarySearchTree(terms);
+            return;
+        }
+        long[] weights = new long[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            weights[i] = terms[i].getTermWeight();
+        }
+        weightIndex = new RangeMaxIndex(weights);
     }
 
     /**
@@ -56,5 +87,41 @@ public class Autocomplete {
         return allMatches;
     }
 
+    /**
+     * Returns the k heaviest terms that start with the given prefix, in descending
+     * order of weight, or all of them if there are fewer than k. Terms of equal
+     * weight come in the same order as in allMatches. The prefix range is found
+     * by binary search and its top k terms are read from the range-maximum index,
+     * so a query takes O(log n + k log k) time however many terms match.
+     * This method throws a NullPointerException if prefix is null,
+     * and an IllegalArgumentException if k is negative.
+     */
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null) {
+            throw new NullPointerException("prefix must not be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        if (tree != null) {
+            return tree.topMatches(prefix, k);
+        }
+
+        Term term = new Term(prefix, 0);
+        Comparator<Term> comp = Term.byPrefixOrder(prefix.length());
+        int firstIndex = BinarySearch.firstIndexOf(termArray, term, comp);
+        if (firstIndex == -1) {
+            return new Term[0];
+        }
+        int lastIndex = BinarySearch.lastIndexOf(termArray, term, comp);
+
+        int[] top = weightIndex.top(firstIndex, lastIndex, k);
+        Term[] topMatches = new Term[top.length];
+        for (int i = 0; i < top.length; i++) {
+            topMatches[i] = termArray[top[i]];
+        }
+        return topMatches;
+    }
+
 
 }
@@ -23,7 +23,7 @@ public class BinarySearch {
         }
 
         int left = 0;
-        int right = a.length;
+        int right = a.length - 1;
         int mid;
         int firstIndex = -1;
 
@@ -38,7 +38,7 @@ public class BinarySearch {
                     left = mid + 1;
                 } else {
                     firstIndex = mid;
-                    left = mid - 1;
+                    right = mid - 1;
                 }
         }
         return firstIndex;
@@ -61,7 +61,7 @@ public class BinarySearch {
             }
 
             int left = 0;
-            int right = a.length;
+            int right = a.length - 1;
             int mid;
             int lastIndex = -1;
 
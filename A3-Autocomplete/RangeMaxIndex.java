@@ -0,0 +1,106 @@
+import java.util.PriorityQueue;
+
+/**
+ * Sparse-table range-maximum index over a fixed array of weights.
+ *
+ * table[j][i] holds the index of the largest weight in weights[i..i + 2^j),
+ * so the largest weight in any range is found in O(1) by looking at the two
+ * overlapping power-of-two blocks that cover it. Building the table takes
+ * O(n log n) time and space. Ties go to the leftmost index.
+ *
+ * The top k weights of a range come from a priority queue of sub-ranges,
+ * each ranked by its own maximum: taking the best sub-range yields its
+ * maximum and splits it in two around that index. That takes O(k log k)
+ * time however long the range is.
+ */
+class RangeMaxIndex {
+
+    private final long[] weights;
+    private final int[][] table;
+
+    /**
+     * Builds the index over the given weights, which must not change afterwards.
+     */
+    RangeMaxIndex(long[] weights) {
+        this.weights = weights;
+        int n = weights.length;
+        int levels = n == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(n);
+        table = new int[levels][];
+        if (levels == 0) {
+            return;
+        }
+        table[0] = new int[n];
+        for (int i = 0; i < n; i++) {
+            table[0][i] = i;
+        }
+        for (int j = 1; j < levels; j++) {
+            int half = 1 << (j - 1);
+            int[] prev = table[j - 1];
+            int[] row = new int[n - (1 << j) + 1];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = better(prev[i], prev[i + half]);
+            }
+            table[j] = row;
+        }
+    }
+
+    /**
+     * Returns the index of the largest weight in weights[lo..hi], the leftmost
+     * one if several are equal. The range must be non-empty and in bounds.
+     */
+    int argmax(int lo, int hi) {
+        int j = 31 - Integer.numberOfLeadingZeros(hi - lo + 1);
+        return better(table[j][lo], table[j][hi - (1 << j) + 1]);
+    }
+
+    /**
+     * Returns the indices of the k largest weights in weights[lo..hi], or of all
+     * of them if the range is shorter, in descending order of weight and then
+     * ascending order of index.
+     */
+    int[] top(int lo, int hi, int k) {
+        int count = Math.min(k, hi - lo + 1);
+        int[] top = new int[count];
+        if (count == 0) {
+            return top;
+        }
+        PriorityQueue<Range> queue = new PriorityQueue<Range>(2 * count);
+        queue.add(new Range(lo, hi, argmax(lo, hi)));
+        for (int i = 0; i < count; i++) {
+            Range r = queue.poll();
+            top[i] = r.best;
+            if (r.lo < r.best) {
+                queue.add(new Range(r.lo, r.best - 1, argmax(r.lo, r.best - 1)));
+            }
+            if (r.best < r.hi) {
+                queue.add(new Range(r.best + 1, r.hi, argmax(r.best + 1, r.hi)));
+            }
+        }
+        return top;
+    }
+
+    private int better(int a, int b) {
+        return weights[b] > weights[a] ? b : a;
+    }
+
+    /**
+     * A sub-range [lo..hi] with the index of its largest weight.
+     */
+    private class Range implements Comparable<Range> {
+        private final int lo;
+        private final int hi;
+        private final int best;
+
+        Range(int lo, int hi, int best) {
+            this.lo = lo;
+            this.hi = hi;
+            this.best = best;
+        }
+
+        @Override
+        public int compareTo(Range other) {
+            int cmp = Long.compare(weights[other.best], weights[best]);
+            return cmp != 0 ? cmp : Integer.compare(best, other.best);
+        }
+    }
+}
@@ -45,19 +45,33 @@ public class Term implements Comparable<Term> {
 
     /**
      * Compares the two terms in ascending lexicographic order of query,
-     * but using only the first length characters of query. This method
-     * throws an IllegalArgumentException if length is less than or equal
-     * to zero.
+     * but using only the first length characters of query. Terms shorter
+     * than length are compared by their whole query. The characters are
+     * compared in place, so no strings are created. This method throws an
+     * IllegalArgumentException if length is less than zero.
      */
     public static Comparator<Term> byPrefixOrder(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must not be negative");
+        }
         return
                 new Comparator<Term>() {
                     @Override
                     public int compare(Term t1, Term t2) {
-                        if (t1.getTermQuery().length() < length || t2.getTermQuery().length() < length) {
-                            return t1.compareTo(t2);
+                        String q1 = t1.getTermQuery();
+                        String q2 = t2.getTermQuery();
+                        if (q1.length() < length || q2.length() < length) {
+                            return q1.compareTo(q2);
+                        }
+                        // Same result as comparing the two length-character substrings.
+                        for (int i = 0; i < length; i++) {
+                            char c1 = q1.charAt(i);
+                            char c2 = q2.charAt(i);
+                            if (c1 != c2) {
+                                return c1 - c2;
+                            }
                         }
-                        return t1.getTermQuery().substring(0, length).compareTo(t2.getTermQuery().substring(0, length));
+                        return 0;
                     }
         };
 
@@ -82,11 +96,11 @@ public class Term implements Comparable<Term> {
         return(termQuery + "\t" + termWeight);
     }
 
-    private String getTermQuery() {
+    String getTermQuery() {
         return termQuery;
     }
 
-    private long getTermWeight() {
+    long getTermWeight() {
         return termWeight;
     }
 
@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Ternary search tree over autocomplete terms, as an alternative index to
+ * the sorted array in Autocomplete, which uses it when built with
+ * Autocomplete.usingTree.
+ *
+ * Terms are held as indices into a sorted copy of the array, and each node
+ * caches the best term in its subtree: the heaviest, and of equal weights
+ * the one with the lowest index. The matches of a prefix are enumerated by
+ * a best-first search in that same order, which only opens the subtrees it
+ * needs, so terms of equal weight come out in sorted order exactly as
+ * Autocomplete returns them. Asking for the top k matches costs about
+ * O(prefix length + k log k) node visits, no matter how many terms share
+ * the prefix.
+ */
+public class TernarySearchTree {
+
+    /** The terms, sorted; the tree refers to them by index. */
+    private final Term[] sorted;
+
+    private Node root;
+
+    /** Indices of the terms whose query is empty, which have no node of their own. */
+    private int[] emptyTerms = new int[0];
+
+    /**
+     * Builds the tree from the given array of terms, which is not changed.
+     * This method throws a NullPointerException if terms or any term is null.
+     */
+    public TernarySearchTree(Term[] terms) {
+        if (terms == null) {
+            throw new NullPointerException("Terms cannot be null");
+        }
+        sorted = terms.clone();
+        Arrays.sort(sorted);
+        // Inserting medians first keeps the tree balanced on sorted input.
+        insertBalanced(0, sorted.length - 1);
+    }
+
+    /**
+     * Returns the number of terms in the tree.
+     */
+    public int size() {
+        return sorted.length;
+    }
+
+    /**
+     * Returns all terms that start with the given prefix, in descending order of weight,
+     * in the same order as Autocomplete.allMatches.
+     * This method throws a NullPointerException if prefix is null.
+     */
+    public Term[] allMatches(String prefix) {
+        return topMatches(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the k heaviest terms that start with the given prefix, in descending
+     * order of weight, or all of them if there are fewer than k. Terms of equal
+     * weight come in sorted order, as in Autocomplete.topMatches.
+     * This method throws a NullPointerException if prefix is null,
+     * and an IllegalArgumentException if k is negative.
+     */
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null) {
+            throw new NullPointerException("prefix must not be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+
+        PriorityQueue<Entry> queue = new PriorityQueue<Entry>();
+        if (prefix.isEmpty()) {
+            addTerms(queue, emptyTerms);
+            if (root != null) {
+                queue.add(new Entry(root));
+            }
+        }
+        else {
+            Node n = find(prefix);
+            if (n == null) {
+                return new Term[0];
+            }
+            // Only the node's own terms and its middle subtree extend the prefix.
+            addTerms(queue, n.terms);
+            if (n.mid != null) {
+                queue.add(new Entry(n.mid));
+            }
+        }
+
+        Term[] matches = new Term[Math.min(k, sorted.length)];
+        int count = 0;
+        while (count < k && !queue.isEmpty()) {
+            Entry e = queue.poll();
+            if (e.node == null) {
+                matches[count++] = sorted[e.index];
+                continue;
+            }
+            Node n = e.node;
+            addTerms(queue, n.terms);
+            if (n.left != null) {
+                queue.add(new Entry(n.left));
+            }
+            if (n.mid != null) {
+                queue.add(new Entry(n.mid));
+            }
+            if (n.right != null) {
+                queue.add(new Entry(n.right));
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private void addTerms(PriorityQueue<Entry> queue, int[] terms) {
+        if (terms != null) {
+            for (int i : terms) {
+                queue.add(new Entry(sorted[i].getTermWeight(), i));
+            }
+        }
+    }
+
+    private void insertBalanced(int lo, int hi) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        insert(mid);
+        insertBalanced(lo, mid - 1);
+        insertBalanced(mid + 1, hi);
+    }
+
+    /** Returns true if the term at index i comes before the one at j: heavier, or as heavy and earlier. */
+    private boolean better(int i, int j) {
+        long wi = sorted[i].getTermWeight();
+        long wj = sorted[j].getTermWeight();
+        return wi > wj || (wi == wj && i < j);
+    }
+
+    private static int[] append(int[] terms, int i) {
+        int[] grown = terms == null ? new int[1] : Arrays.copyOf(terms, terms.length + 1);
+        grown[grown.length - 1] = i;
+        return grown;
+    }
+
+    private void insert(int index) {
+        String query = sorted[index].getTermQuery();
+        if (query.isEmpty()) {
+            emptyTerms = append(emptyTerms, index);
+            return;
+        }
+        if (root == null) {
+            root = new Node(query.charAt(0), index);
+        }
+        Node n = root;
+        int d = 0;
+        while (true) {
+            // Every node on the search path has the new term in its subtree.
+            if (better(index, n.best)) {
+                n.best = index;
+            }
+            char c = query.charAt(d);
+            if (c < n.c) {
+                if (n.left == null) {
+                    n.left = new Node(c, index);
+                }
+                n = n.left;
+            }
+            else if (c > n.c) {
+                if (n.right == null) {
+                    n.right = new Node(c, index);
+                }
+                n = n.right;
+            }
+            else if (d < query.length() - 1) {
+                d++;
+                if (n.mid == null) {
+                    n.mid = new Node(query.charAt(d), index);
+                }
+                n = n.mid;
+            }
+            else {
+                n.terms = append(n.terms, index);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the node for the last character of the given non-empty prefix,
+     * or null if no term starts with it.
+     */
+    private Node find(String prefix) {
+        Node n = root;
+        int d = 0;
+        while (n != null) {
+            char c = prefix.charAt(d);
+            if (c < n.c) {
+                n = n.left;
+            }
+            else if (c > n.c) {
+                n = n.right;
+            }
+            else if (d < prefix.length() - 1) {
+                d++;
+                n = n.mid;
+            }
+            else {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A tree node. Its subtree is the node itself with its left, middle
+     * and right subtrees, and best is the index of the best term in it.
+     */
+    private static class Node {
+        private final char c;
+        private Node left;
+        private Node mid;
+        private Node right;
+        private int[] terms;
+        private int best;
+
+        Node(char c, int best) {
+            this.c = c;
+            this.best = best;
+        }
+    }
+
+    /**
+     * A search queue entry: a term, or a whole subtree ranked by its best
+     * term. Heavier entries come first, and of equal weights the one with
+     * the lower index. A subtree's entry never ranks after a term in it.
+     */
+    private class Entry implements Comparable<Entry> {
+        private final long weight;
+        private final int index;
+        private final Node node;
+
+        Entry(long weight, int index) {
+            this.weight = weight;
+            this.index = index;
+            this.node = null;
+        }
+
+        Entry(Node node) {
+            this.weight = sorted[node.best].getTermWeight();
+            this.index = node.best;
+            this.node = node;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = Long.compare(other.weight, weight);
+            return cmp != 0 ? cmp : Integer.compare(index, other.index);
+        }
+    }
+}
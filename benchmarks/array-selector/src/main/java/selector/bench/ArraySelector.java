@@ -0,0 +1,109 @@
+package selector.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Static entry points into the A1 Selector. Selector lives in the
+ * default package, which named packages cannot import, so its methods
+ * are bound once through constant method handles. The JIT inlines
+ * invokeExact on a static final handle, so the calls cost the same as
+ * direct ones.
+ */
+final class ArraySelector {
+
+    private static final MethodHandle MIN = find("min", int.class, int[].class);
+    private static final MethodHandle MAX = find("max", int.class, int[].class);
+    private static final MethodHandle KMIN = find("kmin", int.class, int[].class, int.class);
+    private static final MethodHandle KMAX = find("kmax", int.class, int[].class, int.class);
+    private static final MethodHandle RANGE = find("range", int[].class, int[].class, int.class, int.class);
+    private static final MethodHandle FLOOR = find("floor", int.class, int[].class, int.class);
+    private static final MethodHandle CEILING = find("ceiling", int.class, int[].class, int.class);
+
+    private ArraySelector() {
+    }
+
+    static int min(int[] a) {
+        try {
+            return (int) MIN.invokeExact(a);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int max(int[] a) {
+        try {
+            return (int) MAX.invokeExact(a);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int kmin(int[] a, int k) {
+        try {
+            return (int) KMIN.invokeExact(a, k);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int kmax(int[] a, int k) {
+        try {
+            return (int) KMAX.invokeExact(a, k);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int[] range(int[] a, int low, int high) {
+        try {
+            return (int[]) RANGE.invokeExact(a, low, high);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int floor(int[] a, int key) {
+        try {
+            return (int) FLOOR.invokeExact(a, key);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int ceiling(int[] a, int key) {
+        try {
+            return (int) CEILING.invokeExact(a, key);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static MethodHandle find(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Class.forName("Selector"), name,
+                MethodType.methodType(returnType, parameterTypes));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,78 @@
+package selector.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures every method of the A1 int[] Selector across input sizes
+ * and distributions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms6g", "-Xmx6g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class ArraySelectorBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    int size;
+
+    @Param
+    Distribution distribution;
+
+    int[] data;
+    Queries q;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = distribution.generate(size);
+        q = new Queries(data);
+    }
+
+    @Benchmark
+    public int min() {
+        return ArraySelector.min(data);
+    }
+
+    @Benchmark
+    public int max() {
+        return ArraySelector.max(data);
+    }
+
+    @Benchmark
+    public int kmin() {
+        return ArraySelector.kmin(data, q.k);
+    }
+
+    @Benchmark
+    public int kmax() {
+        return ArraySelector.kmax(data, q.k);
+    }
+
+    @Benchmark
+    public int[] range() {
+        return ArraySelector.range(data, q.low, q.high);
+    }
+
+    @Benchmark
+    public int floor() {
+        return ArraySelector.floor(data, q.key);
+    }
+
+    @Benchmark
+    public int ceiling() {
+        return ArraySelector.ceiling(data, q.key);
+    }
+}
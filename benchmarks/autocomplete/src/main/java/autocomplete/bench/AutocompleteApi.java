@@ -0,0 +1,172 @@
+package autocomplete.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.Comparator;
+
+/**
+ * Static entry points into the A3 Term, BinarySearch and Autocomplete
+ * classes. They live in the default package, which named packages cannot
+ * import, so terms are handled as Object and the methods are bound once
+ * through constant method handles, which the JIT inlines like direct
+ * calls. The package-private Term.getTermQuery is reached through a
+ * private lookup so the old comparator can be rebuilt outside Term.
+ */
+final class AutocompleteApi {
+
+    private static final Class<?> TERM = find("Term");
+    private static final Class<?> AUTOCOMPLETE = find("Autocomplete");
+
+    private static final MethodHandle NEW_TERM;
+    private static final MethodHandle QUERY;
+    private static final MethodHandle BY_PREFIX_ORDER;
+    private static final MethodHandle FIRST_INDEX_OF;
+    private static final MethodHandle LAST_INDEX_OF;
+    private static final MethodHandle NEW_AUTOCOMPLETE;
+    private static final MethodHandle USING_TREE;
+    private static final MethodHandle ALL_MATCHES;
+    private static final MethodHandle TOP_MATCHES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> terms = Array.newInstance(TERM, 0).getClass();
+            NEW_TERM = lookup.findConstructor(TERM, MethodType.methodType(void.class, String.class, long.class))
+                .asType(MethodType.methodType(Object.class, String.class, long.class));
+            QUERY = MethodHandles.privateLookupIn(TERM, MethodHandles.lookup())
+                .findVirtual(TERM, "getTermQuery", MethodType.methodType(String.class))
+                .asType(MethodType.methodType(String.class, Object.class));
+            BY_PREFIX_ORDER = lookup.findStatic(TERM, "byPrefixOrder",
+                MethodType.methodType(Comparator.class, int.class));
+            Class<?> search = find("BinarySearch");
+            MethodType indexOf = MethodType.methodType(int.class, Object[].class, Object.class, Comparator.class);
+            FIRST_INDEX_OF = lookup.findStatic(search, "firstIndexOf", indexOf);
+            LAST_INDEX_OF = lookup.findStatic(search, "lastIndexOf", indexOf);
+            NEW_AUTOCOMPLETE = lookup.findConstructor(AUTOCOMPLETE, MethodType.methodType(void.class, terms))
+                .asType(MethodType.methodType(Object.class, Object[].class));
+            USING_TREE = lookup.findStatic(AUTOCOMPLETE, "usingTree", MethodType.methodType(AUTOCOMPLETE, terms))
+                .asType(MethodType.methodType(Object.class, Object[].class));
+            ALL_MATCHES = lookup.findVirtual(AUTOCOMPLETE, "allMatches", MethodType.methodType(terms, String.class))
+                .asType(MethodType.methodType(Object[].class, Object.class, String.class));
+            TOP_MATCHES = lookup.findVirtual(AUTOCOMPLETE, "topMatches",
+                    MethodType.methodType(terms, String.class, int.class))
+                .asType(MethodType.methodType(Object[].class, Object.class, String.class, int.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private AutocompleteApi() {
+    }
+
+    /** Returns a new, empty Term[] of the given length, typed as Object[]. */
+    static Object[] newTermArray(int length) {
+        return (Object[]) Array.newInstance(TERM, length);
+    }
+
+    static Object newTerm(String query, long weight) {
+        try {
+            return (Object) NEW_TERM.invokeExact(query, weight);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String query(Object term) {
+        try {
+            return (String) QUERY.invokeExact(term);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Comparator<Object> byPrefixOrder(int length) {
+        try {
+            return (Comparator<Object>) (Comparator) BY_PREFIX_ORDER.invokeExact(length);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int firstIndexOf(Object[] a, Object key, Comparator<Object> comp) {
+        try {
+            return (int) FIRST_INDEX_OF.invokeExact(a, key, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int lastIndexOf(Object[] a, Object key, Comparator<Object> comp) {
+        try {
+            return (int) LAST_INDEX_OF.invokeExact(a, key, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /** Returns a new Autocomplete over terms, which must be a Term[] and is sorted in place. */
+    static Object newAutocomplete(Object[] terms) {
+        try {
+            return (Object) NEW_AUTOCOMPLETE.invokeExact(terms);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /** Returns a tree-backed Autocomplete over terms, which must be a Term[] and is sorted in place. */
+    static Object usingTree(Object[] terms) {
+        try {
+            return (Object) USING_TREE.invokeExact(terms);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object[] allMatches(Object autocomplete, String prefix) {
+        try {
+            return (Object[]) ALL_MATCHES.invokeExact(autocomplete, prefix);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object[] topMatches(Object autocomplete, String prefix, int k) {
+        try {
+            return (Object[]) TOP_MATCHES.invokeExact(autocomplete, prefix, k);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Class<?> find(String name) {
+        try {
+            return Class.forName(name);
+        }
+        catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new IllegalStateException(t);
+    }
+}
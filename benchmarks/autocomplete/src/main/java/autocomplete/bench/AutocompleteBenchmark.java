@@ -0,0 +1,56 @@
+package autocomplete.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures whole Autocomplete queries: allMatches, which copies and sorts
+ * the prefix range, against topMatches for the top ten terms, answered
+ * from the range-maximum index over the sorted array and from the ternary
+ * search tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int size;
+
+    Workload w;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        w = new Workload(size);
+    }
+
+    @Benchmark
+    public Object[] allMatches() {
+        return AutocompleteApi.allMatches(w.autocomplete, w.prefixes[next++ & (Workload.PREFIXES - 1)]);
+    }
+
+    @Benchmark
+    public Object[] topMatches() {
+        return AutocompleteApi.topMatches(w.autocomplete, w.prefixes[next++ & (Workload.PREFIXES - 1)], 10);
+    }
+
+    @Benchmark
+    public Object[] treeTopMatches() {
+        return AutocompleteApi.topMatches(w.tree, w.prefixes[next++ & (Workload.PREFIXES - 1)], 10);
+    }
+}
@@ -0,0 +1,69 @@
+package autocomplete.bench;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the binary searches that find a prefix range in Autocomplete,
+ * with the substring-based prefix comparator Term used to have and the
+ * char-by-char one it has now. Run with -prof gc to see the allocation
+ * rate: the CHAR_LOOP searches allocate nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class PrefixOrderBenchmark {
+
+    /** The prefix comparators being compared. */
+    public enum PrefixOrder { SUBSTRING, CHAR_LOOP }
+
+    @Param({"10000", "100000", "1000000"})
+    int size;
+
+    @Param
+    PrefixOrder order;
+
+    Object[] terms;
+    Object[] keys;
+    Comparator<Object>[] comparators;
+    int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Workload w = new Workload(size);
+        terms = w.terms;
+        keys = new Object[Workload.PREFIXES];
+        comparators = new Comparator[Workload.PREFIXES];
+        for (int i = 0; i < Workload.PREFIXES; i++) {
+            String prefix = w.prefixes[i];
+            keys[i] = AutocompleteApi.newTerm(prefix, 0);
+            comparators[i] = order == PrefixOrder.SUBSTRING
+                ? new SubstringPrefixOrder(prefix.length())
+                : AutocompleteApi.byPrefixOrder(prefix.length());
+        }
+    }
+
+    @Benchmark
+    public int prefixRange() {
+        int i = next++ & (Workload.PREFIXES - 1);
+        int first = AutocompleteApi.firstIndexOf(terms, keys[i], comparators[i]);
+        int last = AutocompleteApi.lastIndexOf(terms, keys[i], comparators[i]);
+        return last - first;
+    }
+}
@@ -0,0 +1,27 @@
+package autocomplete.bench;
+
+import java.util.Comparator;
+
+/**
+ * The previous implementation of Term.byPrefixOrder, which compares two
+ * fresh substrings on every call, kept as the baseline for the
+ * allocation-free version now in Term.
+ */
+final class SubstringPrefixOrder implements Comparator<Object> {
+
+    private final int length;
+
+    SubstringPrefixOrder(int length) {
+        this.length = length;
+    }
+
+    @Override
+    public int compare(Object t1, Object t2) {
+        String q1 = AutocompleteApi.query(t1);
+        String q2 = AutocompleteApi.query(t2);
+        if (q1.length() < length || q2.length() < length) {
+            return q1.compareTo(q2);
+        }
+        return q1.substring(0, length).compareTo(q2.substring(0, length));
+    }
+}
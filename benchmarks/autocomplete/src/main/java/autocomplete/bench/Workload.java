@@ -0,0 +1,54 @@
+package autocomplete.bench;
+
+import java.util.Random;
+
+/**
+ * A fixed-seed set of terms and query prefixes shared by the benchmarks.
+ * Queries are random words of three to ten lowercase letters with random
+ * weights, and each prefix is the first one to four letters of a query
+ * in the set, so every prefix has at least one match.
+ */
+final class Workload {
+
+    /** Seed for the generated terms, so every run sees the same data. */
+    static final long SEED = 2210;
+
+    /** The number of distinct prefixes cycled through by the benchmarks. */
+    static final int PREFIXES = 64;
+
+    /** The terms, as a Term[] sorted by query. */
+    final Object[] terms;
+
+    /** Query prefixes taken from the terms. */
+    final String[] prefixes;
+
+    /** The Autocomplete built over terms. */
+    final Object autocomplete;
+
+    /** The tree-backed Autocomplete built over the same terms. */
+    final Object tree;
+
+    Workload(int size) {
+        Random random = new Random(SEED);
+        terms = AutocompleteApi.newTermArray(size);
+        for (int i = 0; i < size; i++) {
+            terms[i] = AutocompleteApi.newTerm(word(random, 3 + random.nextInt(8)), random.nextInt(1_000_000));
+        }
+        autocomplete = AutocompleteApi.newAutocomplete(terms);
+        tree = AutocompleteApi.usingTree(terms);
+
+        prefixes = new String[PREFIXES];
+        for (int i = 0; i < PREFIXES; i++) {
+            String query = AutocompleteApi.query(terms[random.nextInt(size)]);
+            prefixes[i] = query.substring(0, Math.min(query.length(), 1 + random.nextInt(4)));
+        }
+    }
+
+    private static String word(Random random, int length) {
+        char[] c = new char[length];
+        for (int i = 0; i < length; i++) {
+            c[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(c);
+    }
+}
@@ -0,0 +1,118 @@
+package selector.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Static entry points into the A2 Selector. Selector lives in the
+ * default package, which named packages cannot import, so its methods
+ * are bound once through constant method handles. The JIT inlines
+ * invokeExact on a static final handle, so the calls cost the same as
+ * direct ones.
+ */
+final class CollectionSelector {
+
+    private static final MethodHandle MIN =
+        find("min", Object.class, Collection.class, Comparator.class);
+    private static final MethodHandle MAX =
+        find("max", Object.class, Collection.class, Comparator.class);
+    private static final MethodHandle KMIN =
+        find("kmin", Object.class, Collection.class, int.class, Comparator.class);
+    private static final MethodHandle KMAX =
+        find("kmax", Object.class, Collection.class, int.class, Comparator.class);
+    private static final MethodHandle RANGE =
+        find("range", Collection.class, Collection.class, Object.class, Object.class, Comparator.class);
+    private static final MethodHandle FLOOR =
+        find("floor", Object.class, Collection.class, Object.class, Comparator.class);
+    private static final MethodHandle CEILING =
+        find("ceiling", Object.class, Collection.class, Object.class, Comparator.class);
+
+    private CollectionSelector() {
+    }
+
+    static Object min(Collection<?> c, Comparator<?> comp) {
+        try {
+            return (Object) MIN.invokeExact((Collection) c, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object max(Collection<?> c, Comparator<?> comp) {
+        try {
+            return (Object) MAX.invokeExact((Collection) c, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object kmin(Collection<?> c, int k, Comparator<?> comp) {
+        try {
+            return (Object) KMIN.invokeExact((Collection) c, k, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object kmax(Collection<?> c, int k, Comparator<?> comp) {
+        try {
+            return (Object) KMAX.invokeExact((Collection) c, k, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Collection<?> range(Collection<?> c, Object low, Object high, Comparator<?> comp) {
+        try {
+            return (Collection) RANGE.invokeExact((Collection) c, low, high, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object floor(Collection<?> c, Object key, Comparator<?> comp) {
+        try {
+            return (Object) FLOOR.invokeExact((Collection) c, key, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object ceiling(Collection<?> c, Object key, Comparator<?> comp) {
+        try {
+            return (Object) CEILING.invokeExact((Collection) c, key, (Comparator) comp);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static MethodHandle find(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Class.forName("Selector"), name,
+                MethodType.methodType(returnType, parameterTypes));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new IllegalStateException(t);
+    }
+}
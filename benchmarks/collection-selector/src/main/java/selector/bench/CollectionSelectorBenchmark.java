@@ -0,0 +1,109 @@
+package selector.bench;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures every method of the A2 Collection Selector across input
+ * sizes, distributions and backing collections. Sizes above 10^6 boxed
+ * elements are left out of the default matrix because a LinkedList of
+ * that many Integers does not fit a reasonable heap; pass them with
+ * -p size=... to run them on a larger machine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms6g", "-Xmx6g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class CollectionSelectorBenchmark {
+
+    /** The collection types the Selector is run against. */
+    public enum Backing { ARRAY_LIST, LINKED_LIST, HASH_SET }
+
+    private static final Comparator<Integer> ASCENDING = Comparator.naturalOrder();
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param
+    Distribution distribution;
+
+    @Param
+    Backing backing;
+
+    Collection<Integer> data;
+    int k;
+    Integer key;
+    Integer low;
+    Integer high;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] values = distribution.generate(size);
+        switch (backing) {
+            case ARRAY_LIST:  data = new ArrayList<>(size); break;
+            case LINKED_LIST: data = new LinkedList<>(); break;
+            default:          data = new HashSet<>(); break;
+        }
+        for (int x : values) {
+            data.add(x);
+        }
+        Queries q = new Queries(values);
+        k = q.k;
+        key = q.key;
+        low = q.low;
+        high = q.high;
+    }
+
+    @Benchmark
+    public Object min() {
+        return CollectionSelector.min(data, ASCENDING);
+    }
+
+    @Benchmark
+    public Object max() {
+        return CollectionSelector.max(data, ASCENDING);
+    }
+
+    @Benchmark
+    public Object kmin() {
+        return CollectionSelector.kmin(data, k, ASCENDING);
+    }
+
+    @Benchmark
+    public Object kmax() {
+        return CollectionSelector.kmax(data, k, ASCENDING);
+    }
+
+    @Benchmark
+    public Collection<?> range() {
+        return CollectionSelector.range(data, low, high, ASCENDING);
+    }
+
+    @Benchmark
+    public Object floor() {
+        return CollectionSelector.floor(data, key, ASCENDING);
+    }
+
+    @Benchmark
+    public Object ceiling() {
+        return CollectionSelector.ceiling(data, key, ASCENDING);
+    }
+}
@@ -0,0 +1,47 @@
+package selector.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * The input distributions every selection benchmark is run against.
+ * Inputs are generated from a fixed seed, so every run of a benchmark
+ * sees exactly the same data.
+ */
+public enum Distribution {
+
+    /** 0, 1, 2, ..., n - 1. */
+    SORTED,
+
+    /** n - 1, n - 2, ..., 0. */
+    REVERSED,
+
+    /** Uniformly random over all ints. */
+    RANDOM,
+
+    /** Uniformly random over 16 values. */
+    FEW_DISTINCT,
+
+    /** The same value n times. */
+    ALL_EQUAL;
+
+    /** The seed used for every generated input. */
+    public static final long SEED = 2210L;
+
+    /**
+     * Returns n values drawn from this distribution.
+     */
+    public int[] generate(int n) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            switch (this) {
+                case SORTED:       a[i] = i; break;
+                case REVERSED:     a[i] = n - 1 - i; break;
+                case RANDOM:       a[i] = random.nextInt(); break;
+                case FEW_DISTINCT: a[i] = random.nextInt(16); break;
+                default:           a[i] = 42; break;
+            }
+        }
+        return a;
+    }
+}
@@ -0,0 +1,34 @@
+package selector.bench;
+
+import java.util.Arrays;
+
+/**
+ * Query arguments derived from a generated input, chosen so that every
+ * query has an answer: k is the middle distinct rank, key is halfway
+ * between the minimum and maximum, and [low..high] is the middle half
+ * of the value range.
+ */
+public final class Queries {
+
+    public final int k;
+    public final int key;
+    public final int low;
+    public final int high;
+
+    public Queries(int[] a) {
+        int[] sorted = a.clone();
+        Arrays.sort(sorted);
+        int distinct = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        long min = sorted[0];
+        long max = sorted[sorted.length - 1];
+        k = (distinct + 1) / 2;
+        key = (int) (min + (max - min) / 2);
+        low = (int) (min + (max - min) / 4);
+        high = (int) (min + 3 * (max - min) / 4);
+    }
+}